@@ -0,0 +1,96 @@
+package com.qfpay.qrcode_plugin;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class CameraExecutorsTest {
+    private static final int CYCLES = 1000;
+
+    private final CameraExecutors mExecutors = CameraExecutors.getInstance();
+
+    @After
+    public void tearDown() throws InterruptedException {
+        mExecutors.shutdown();
+        joinExecutorThreads();
+    }
+
+    @Test
+    public void acquireReleaseCyclesReuseThreads() throws InterruptedException {
+        mExecutors.acquire();
+        DecodeWorkerPool pool = mExecutors.decodePool();
+        mExecutors.release();
+
+        for (int i = 0; i < CYCLES; i++) {
+            mExecutors.acquire();
+            // 空闲超时前重新获取时复用原来的线程
+            assertSame(pool, mExecutors.decodePool());
+            mExecutors.release();
+        }
+        assertEquals(1 + CameraExecutors.DECODE_WORKERS, executorThreads().size());
+
+        mExecutors.shutdown();
+        joinExecutorThreads();
+        assertTrue(executorThreads().isEmpty());
+        assertNull(mExecutors.decodePool());
+    }
+
+    @Test
+    public void acquireReleaseShutdownCyclesDoNotLeakThreads() throws InterruptedException {
+        int baseline = Thread.activeCount();
+
+        for (int i = 0; i < CYCLES; i++) {
+            mExecutors.acquire();
+            assertNotNull(mExecutors.controlHandler());
+            assertNotNull(mExecutors.decodePool());
+            mExecutors.release();
+            mExecutors.shutdown();
+        }
+
+        joinExecutorThreads();
+        assertTrue(executorThreads().isEmpty());
+        assertTrue(Thread.activeCount() <= baseline);
+    }
+
+    @Test
+    public void shutdownIsIgnoredWhileCamerasHoldReferences() throws InterruptedException {
+        mExecutors.acquire();
+        mExecutors.acquire();
+        mExecutors.release();
+        mExecutors.shutdown();
+        assertNotNull(mExecutors.decodePool());
+
+        mExecutors.release();
+        mExecutors.shutdown();
+        assertNull(mExecutors.decodePool());
+    }
+
+    private static List<Thread> executorThreads() {
+        List<Thread> threads = new ArrayList<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.isAlive() && (thread.getName().equals("QrcodeCameraControl")
+                    || thread.getName().startsWith("QrcodeDecode-"))) {
+                threads.add(thread);
+            }
+        }
+        return threads;
+    }
+
+    private static void joinExecutorThreads() throws InterruptedException {
+        for (Thread thread : executorThreads()) {
+            thread.join(5000);
+        }
+    }
+}
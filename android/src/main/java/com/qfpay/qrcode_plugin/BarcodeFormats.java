@@ -0,0 +1,81 @@
+package com.qfpay.qrcode_plugin;
+
+import com.google.zxing.BarcodeFormat;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @Description: 条码格式名称与ZXing格式的对应关系，名称与camera.dart中的CodeFormat一致
+ * @CreateDate: 2026-10-18 19:02
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin
+ * @ClassName: BarcodeFormats
+ */
+final class BarcodeFormats {
+    // 未设置格式时默认只识别二维码
+    static final Set<BarcodeFormat> DEFAULT_FORMATS = Collections.unmodifiableSet(EnumSet.of(BarcodeFormat.QR_CODE));
+
+    private BarcodeFormats() {
+    }
+
+    /**
+     * 校验并转换格式名称
+     *
+     * @param names 格式名称，为空时使用{@link #DEFAULT_FORMATS}
+     * @return 不可修改的格式集合
+     * @throws IllegalArgumentException 存在不支持的格式名称
+     */
+    static Set<BarcodeFormat> parse(List<String> names) {
+        if (names == null || names.isEmpty()) {
+            return DEFAULT_FORMATS;
+        }
+        EnumSet<BarcodeFormat> formats = EnumSet.noneOf(BarcodeFormat.class);
+        for (String name : names) {
+            BarcodeFormat format = forName(name);
+            if (format == null) {
+                throw new IllegalArgumentException("Unsupported code format: " + name);
+            }
+            formats.add(format);
+        }
+        return Collections.unmodifiableSet(formats);
+    }
+
+    static BarcodeFormat forName(String name) {
+        if (name == null) {
+            return null;
+        }
+        switch (name) {
+            case "codabar":
+                return BarcodeFormat.CODABAR;
+            case "code39":
+                return BarcodeFormat.CODE_39;
+            case "code93":
+                return BarcodeFormat.CODE_93;
+            case "code128":
+                return BarcodeFormat.CODE_128;
+            case "ean8":
+                return BarcodeFormat.EAN_8;
+            case "ean13":
+                return BarcodeFormat.EAN_13;
+            case "itf":
+                return BarcodeFormat.ITF;
+            case "upca":
+                return BarcodeFormat.UPC_A;
+            case "upce":
+                return BarcodeFormat.UPC_E;
+            case "aztec":
+                return BarcodeFormat.AZTEC;
+            case "datamatrix":
+                return BarcodeFormat.DATA_MATRIX;
+            case "pdf417":
+                return BarcodeFormat.PDF_417;
+            case "qr":
+                return BarcodeFormat.QR_CODE;
+            default:
+                return null;
+        }
+    }
+}
@@ -8,38 +8,33 @@ import android.graphics.Rect;
 import android.graphics.SurfaceTexture;
 import android.hardware.camera2.CameraAccessException;
 import android.hardware.camera2.CameraCaptureSession;
+import android.hardware.camera2.CameraCharacteristics;
 import android.hardware.camera2.CameraDevice;
 import android.hardware.camera2.CameraManager;
 import android.hardware.camera2.CameraMetadata;
 import android.hardware.camera2.CaptureRequest;
+import android.hardware.camera2.CaptureResult;
 import android.hardware.camera2.TotalCaptureResult;
 import android.media.CamcorderProfile;
 import android.media.Image;
 import android.media.ImageReader;
 import android.os.Handler;
-import android.os.HandlerThread;
-import android.os.Process;
-import android.text.TextUtils;
+import android.os.SystemClock;
+import android.util.Range;
+import android.util.Rational;
 import android.util.Size;
 import android.view.Surface;
 
 import androidx.annotation.NonNull;
 
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.BinaryBitmap;
-import com.google.zxing.DecodeHintType;
-import com.google.zxing.MultiFormatReader;
-import com.google.zxing.PlanarYUVLuminanceSource;
-import com.google.zxing.ReaderException;
-import com.google.zxing.Result;
-import com.google.zxing.common.HybridBinarizer;
+import com.qfpay.qrcode_plugin.engine.DecodeConfig;
+import com.qfpay.qrcode_plugin.engine.DecodeEngine;
+import com.qfpay.qrcode_plugin.engine.DecodeObserver;
+import com.qfpay.qrcode_plugin.engine.DecodeOutcome;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.EnumMap;
-import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -72,12 +67,58 @@ class Camera {
     private EventChannel.EventSink eventSink;
     private CaptureRequest.Builder captureRequestBuilder;
 
-    private final MultiFormatReader multiFormatReader;
+    private final DecodeEngine mDecodeEngine;
+    private final CameraExecutors mExecutors;
     private final Handler mCameraHandler;
+    // 识别任务槽，同一时间只处理一帧，未处理完时丢弃新帧
+    private final DecodeWorkerPool.Slot mDecodeSlot;
+    // 保护ImageReader、空闲控制器和扫码辅助，避免识别过程中被关闭
+    private final Object mImageLock = new Object();
+    // 保护预览请求(captureRequestBuilder)、预览会话以及补光灯、变焦、曝光和帧率设置，
+    // 主线程、相机回调和识别线程都会修改预览请求。与其他锁同时持有时最后获取
+    private final Object mRequestLock = new Object();
+    private boolean mDisposed = false;
     private final Handler mUIHandler;
     private volatile boolean isPreviewing = false;
-    private BarcodeScanListener mScanListener;
-    private static Map<String, BarcodeFormat> SUPPORT_CODE_FORMATS = new HashMap<>();
+    private final DecodeResultCache mResultCache;
+    private final ScanMetrics mMetrics;
+    private final ScanTracer mTracer;
+    // 当前识别帧的时间戳，只在识别线程中使用，用于关联追踪记录
+    private long mTraceFrame;
+    private final List<PayloadParser> mPayloadParsers;
+
+    // 补光灯、变焦和曝光控制
+    private final boolean mTorchAvailable;
+    private final float mMaxZoom;
+    private final Rect mActiveArraySize;
+    private final Range<Integer> mExposureRange;
+    private final float mExposureStep;
+    private boolean mTorch = false;
+    private float mZoom = 1f;
+    private int mExposure = 0;
+    private boolean mAssistTorch = false;
+    private float mAssistZoom = 1f;
+    private ScanAssistController mScanAssist;
+    // 空闲模式，未开启时为null
+    private final IdleController mIdleController;
+    private final Range<Integer> mIdleFpsRange;
+    private Range<Integer> mDefaultFpsRange;
+    private boolean mIdle = false;
+    // 是否已记录识别器创建耗时(识别线程中使用)
+    private boolean mReaderBuildRecorded = false;
+
+    // 单路输出模式：只向ImageReader输出，预览由同一帧在CPU上绘制，减少一路相机输出流
+    static final String STREAM_MODE_DUAL = "dual";
+    static final String STREAM_MODE_SINGLE = "single";
+    static final String STREAM_MODE_AUTO = "auto";
+    private final boolean mSingleStream;
+    private final FrameExchange mFrameExchange = new FrameExchange();
+    // 保护单路输出模式下ImageReader的读取和预览绘制，在相机控制线程中使用
+    private final Object mReaderLock = new Object();
+    private PreviewRenderer mPreviewRenderer;
+    // 单路输出模式下绘制预览时需要自己按传感器方向旋转，前置摄像头需要镜像
+    private final int mSensorOrientation;
+    private final boolean mFrontFacing;
 
     // Mirrors camera.dart
     public enum ResolutionPreset {
@@ -89,63 +130,114 @@ class Camera {
         max,
     }
 
-    static {
-        SUPPORT_CODE_FORMATS.put("codabar", BarcodeFormat.CODABAR);
-        SUPPORT_CODE_FORMATS.put("code39", BarcodeFormat.CODE_39);
-        SUPPORT_CODE_FORMATS.put("code93", BarcodeFormat.CODE_93);
-        SUPPORT_CODE_FORMATS.put("code128", BarcodeFormat.CODE_128);
-        SUPPORT_CODE_FORMATS.put("ean8", BarcodeFormat.EAN_8);
-        SUPPORT_CODE_FORMATS.put("ean13", BarcodeFormat.EAN_13);
-        SUPPORT_CODE_FORMATS.put("itf", BarcodeFormat.ITF);
-        SUPPORT_CODE_FORMATS.put("upca", BarcodeFormat.UPC_A);
-        SUPPORT_CODE_FORMATS.put("aztec", BarcodeFormat.AZTEC);
-        SUPPORT_CODE_FORMATS.put("datamatrix", BarcodeFormat.DATA_MATRIX);
-        SUPPORT_CODE_FORMATS.put("pdf417", BarcodeFormat.PDF_417);
-        SUPPORT_CODE_FORMATS.put("qr", BarcodeFormat.QR_CODE);
-    }
-
     Camera(
             final Activity activity,
             final FlutterView flutterView,
             final String cameraName,
             final String resolutionPreset,
-            final List<String> codeFormats,
-            final BarcodeScanListener barcodeScanListener) {
+            final DecodeConfig decodeConfig,
+            final List<PayloadParser> payloadParsers,
+            final String streamMode,
+            final int idleTimeoutMillis,
+            final DecodeResultCache resultCache,
+            final ScanMetrics metrics,
+            final ScanTracer tracer) throws CameraAccessException {
         if (activity == null) {
             throw new IllegalStateException("No activity available!");
         }
 
         this.cameraName = cameraName;
-        this.flutterTexture = flutterView.createSurfaceTexture();
         this.cameraManager = (CameraManager) activity.getSystemService(Context.CAMERA_SERVICE);
         ResolutionPreset preset = ResolutionPreset.valueOf(resolutionPreset);
         CamcorderProfile recordingProfile = CameraUtil.getBestAvailableCamcorderProfileForResolutionPreset(cameraName, preset);
         captureSize = new Size(recordingProfile.videoFrameWidth, recordingProfile.videoFrameHeight);
         previewSize = computeBestPreviewSize(cameraName, preset);
 
-        // 初始化二维码解析器
-        multiFormatReader = new MultiFormatReader();
-        Map<DecodeHintType, Object> hints = new EnumMap<>(DecodeHintType.class);
-        Collection<BarcodeFormat> decodeFormats = EnumSet.of(BarcodeFormat.QR_CODE);
+        // 初始化识别引擎，识别器在收到第一帧时才创建
+        mDecodeEngine = new DecodeEngine(decodeConfig);
+        mDecodeEngine.setObserver(mDecodeObserver);
+
+        CameraCharacteristics characteristics = cameraManager.getCameraCharacteristics(cameraName);
+        Boolean flashAvailable = characteristics.get(CameraCharacteristics.FLASH_INFO_AVAILABLE);
+        mTorchAvailable = flashAvailable != null && flashAvailable;
+        Float maxZoom = characteristics.get(CameraCharacteristics.SCALER_AVAILABLE_MAX_DIGITAL_ZOOM);
+        mMaxZoom = maxZoom != null ? Math.max(maxZoom, 1f) : 1f;
+        mActiveArraySize = characteristics.get(CameraCharacteristics.SENSOR_INFO_ACTIVE_ARRAY_SIZE);
+        Range<Integer> exposureRange = characteristics.get(CameraCharacteristics.CONTROL_AE_COMPENSATION_RANGE);
+        mExposureRange = exposureRange != null ? exposureRange : new Range<>(0, 0);
+        Rational exposureStep = characteristics.get(CameraCharacteristics.CONTROL_AE_COMPENSATION_STEP);
+        mExposureStep = exposureStep != null ? exposureStep.floatValue() : 0f;
+        mSingleStream = useSingleStream(streamMode, characteristics);
+        Integer sensorOrientation = characteristics.get(CameraCharacteristics.SENSOR_ORIENTATION);
+        mSensorOrientation = sensorOrientation != null ? sensorOrientation : 0;
+        Integer lensFacing = characteristics.get(CameraCharacteristics.LENS_FACING);
+        mFrontFacing = lensFacing != null && lensFacing == CameraMetadata.LENS_FACING_FRONT;
+        mIdleFpsRange = lowestFpsRange(characteristics.get(CameraCharacteristics.CONTROL_AE_AVAILABLE_TARGET_FPS_RANGES));
+
+        // 查询相机参数可能抛出异常，之后再创建纹理，避免纹理泄漏
+        this.flutterTexture = flutterView.createSurfaceTexture();
+
+        // 相机控制线程和识别线程由所有相机共享
+        mExecutors = CameraExecutors.getInstance();
+        mExecutors.acquire();
+        mCameraHandler = mExecutors.controlHandler();
+        mDecodeSlot = mExecutors.decodePool().newSlot(mDecodeTask);
 
-        if (codeFormats != null && codeFormats.size() > 0) {
-            decodeFormats.clear();
-            for(String name : codeFormats) {
-                decodeFormats.add(SUPPORT_CODE_FORMATS.get(name));
+        mUIHandler = new Handler();
+
+        this.mResultCache = resultCache;
+        this.mMetrics = metrics;
+        this.mTracer = tracer;
+        this.mPayloadParsers = payloadParsers;
+        this.mIdleController = idleTimeoutMillis > 0
+                ? new IdleController(mIdleActuator, idleTimeoutMillis, metrics, SystemClock.elapsedRealtime())
+                : null;
+    }
+
+    /**
+     * 空闲状态使用的帧率范围，取上限最低的一项
+     */
+    private static Range<Integer> lowestFpsRange(Range<Integer>[] ranges) {
+        Range<Integer> lowest = null;
+        if (ranges == null) {
+            return null;
+        }
+        for (Range<Integer> range : ranges) {
+            if (lowest == null || range.getUpper() < lowest.getUpper()
+                    || (range.getUpper().equals(lowest.getUpper()) && range.getLower() < lowest.getLower())) {
+                lowest = range;
             }
         }
+        return lowest;
+    }
 
-        hints.put(DecodeHintType.POSSIBLE_FORMATS, decodeFormats);
-        multiFormatReader.setHints(hints);
-
-        // 初始化相机操作线程
-        HandlerThread handlerThread = new HandlerThread("BarCodeDecode", Process.THREAD_PRIORITY_BACKGROUND);
-        handlerThread.start();
-        mCameraHandler = new Handler(handlerThread.getLooper());
+    /**
+     * auto模式下LEGACY和LIMITED级别的设备使用单路输出
+     */
+    private static boolean useSingleStream(String streamMode, CameraCharacteristics characteristics) {
+        if (STREAM_MODE_SINGLE.equals(streamMode)) {
+            return true;
+        }
+        if (!STREAM_MODE_AUTO.equals(streamMode)) {
+            return false;
+        }
+        Integer level = characteristics.get(CameraCharacteristics.INFO_SUPPORTED_HARDWARE_LEVEL);
+        return level != null && (level == CameraMetadata.INFO_SUPPORTED_HARDWARE_LEVEL_LEGACY
+                || level == CameraMetadata.INFO_SUPPORTED_HARDWARE_LEVEL_LIMITED);
+    }
 
-        mUIHandler = new Handler();
+    String getCameraName() {
+        return cameraName;
+    }
 
-        this.mScanListener = barcodeScanListener;
+    /**
+     * 识别结果转为Map，并标记来源相机
+     */
+    Map<String, Object> describeResult(ScanResult scanResult) {
+        Map<String, Object> map = scanResult.toMap();
+        map.put("textureId", flutterTexture.id());
+        map.put("cameraName", cameraName);
+        return map;
     }
 
     TextureRegistry.SurfaceTextureEntry getFlutterTexture() {
@@ -178,6 +270,10 @@ class Camera {
         pictureImageReader =
                 ImageReader.newInstance(
                         captureSize.getWidth(), captureSize.getHeight(), ImageFormat.YUV_420_888, 2);
+        if (mSingleStream) {
+            // 单路输出时由相机控制线程复制每一帧并绘制预览
+            pictureImageReader.setOnImageAvailableListener(mImageAvailableListener, mCameraHandler);
+        }
 
         cameraManager.openCamera(
                 cameraName,
@@ -229,48 +325,59 @@ class Camera {
                 null);
     }
 
-    private String scanBarcode(Image image) {
+    private DecodeOutcome scanBarcode(Image image) {
         if (image == null) {
-            return "";
+            return null;
         }
         Image.Plane[] planes = image.getPlanes();
         if (planes == null || planes.length == 0) {
-            return "";
+            return null;
         }
+        long traceStart = mTracer.begin();
         ByteBuffer byteBuffer = planes[0].getBuffer();
         byte[] data = new byte[byteBuffer.remaining()];
         byteBuffer.get(data);
-        PlanarYUVLuminanceSource source = buildLuminanceSource(data, previewSize.getWidth(), previewSize.getHeight());
-        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source));
-        try {
-            Result rawResult = multiFormatReader.decodeWithState(bitmap);
-            return rawResult.getText();
-        } catch (ReaderException re) {
-            // continue
-        } finally {
-            multiFormatReader.reset();
-        }
-        return "";
+        mTracer.end(ScanTracer.SPAN_ACQUIRE, traceStart, flutterTexture.id(), mTraceFrame);
+        return decodeLuminance(data, planes[0].getRowStride(), image.getWidth(), image.getHeight());
+    }
+
+    private DecodeOutcome decodeLuminance(byte[] data, int rowStride, int width, int height) {
+        mMetrics.framesDecoded.incrementAndGet();
+        DecodeOutcome outcome = mDecodeEngine.decode(data, rowStride, width, height);
+        if (!mReaderBuildRecorded) {
+            // 识别器在第一帧时创建
+            mReaderBuildRecorded = true;
+            mMetrics.readerBuildMicros.set(mDecodeEngine.getReaderBuildMicros());
+        }
+        return outcome;
     }
 
     /**
-     * A factory method to build the appropriate LuminanceSource object based on the format
-     * of the preview buffers, as described by Camera.Parameters.
-     *
-     * @param data   A preview frame.
-     * @param width  The width of the image.
-     * @param height The height of the image.
-     * @return A PlanarYUVLuminanceSource instance.
+     * 将识别引擎各阶段的耗时记录到耗时追踪
      */
-    private PlanarYUVLuminanceSource buildLuminanceSource(byte[] data, int width, int height) {
-        Rect rect = new Rect(0, 0, width, height);
-//        if (rect == null) {
-//            return null;
-//        }
-        // Go ahead and assume it's YUV rather than die.
-        return new PlanarYUVLuminanceSource(data, width, height, rect.left, rect.top,
-                rect.width(), rect.height(), false);
-    }
+    private final DecodeObserver mDecodeObserver = new DecodeObserver() {
+        @Override
+        public boolean isEnabled() {
+            return mTracer.isEnabled();
+        }
+
+        @Override
+        public void onStage(int stage, long startNanos) {
+            int span;
+            switch (stage) {
+                case DecodeObserver.STAGE_LUMINANCE:
+                    span = ScanTracer.SPAN_LUMINANCE;
+                    break;
+                case DecodeObserver.STAGE_BINARIZE:
+                    span = ScanTracer.SPAN_BINARIZE;
+                    break;
+                default:
+                    span = ScanTracer.SPAN_READER;
+                    break;
+            }
+            mTracer.end(span, startNanos, flutterTexture.id(), mTraceFrame);
+        }
+    };
 
     private void openCamera(final MethodChannel.Result result) {
         if (cameraDevice == null) {
@@ -283,6 +390,12 @@ class Camera {
             reply.put("textureId", flutterTexture.id());
             reply.put("previewWidth", previewSize.getWidth());
             reply.put("previewHeight", previewSize.getHeight());
+            reply.put("torchAvailable", mTorchAvailable);
+            reply.put("maxZoom", (double) mMaxZoom);
+            reply.put("minExposure", mExposureRange.getLower());
+            reply.put("maxExposure", mExposureRange.getUpper());
+            reply.put("exposureStep", (double) mExposureStep);
+            reply.put("singleStream", mSingleStream);
             result.success(reply);
         } catch (CameraAccessException e) {
             e.printStackTrace();
@@ -299,27 +412,157 @@ class Camera {
                 //如果停止了预览，则不再识别图片
                 return;
             }
+            long traceStart = mTracer.begin();
+            if (!mDecodeSlot.schedule()) {
+                mMetrics.framesDropped.incrementAndGet();
+            }
+            if (traceStart != 0L) {
+                Long timestamp = result.get(CaptureResult.SENSOR_TIMESTAMP);
+                mTracer.end(ScanTracer.SPAN_CAPTURE_COMPLETE, traceStart, flutterTexture.id(),
+                        timestamp != null ? timestamp : 0L);
+            }
+        }
+    };
+
+    /**
+     * 在识别线程中识别最新一帧
+     */
+    private final Runnable mDecodeTask = new Runnable() {
+        @Override
+        public void run() {
+            decodeLatestImage();
+        }
+    };
+
+    private void decodeLatestImage() {
+        synchronized (mImageLock) {
+            if (!isPreviewing || pictureImageReader == null) {
+                return;
+            }
+            if (mIdleController != null && mIdleController.isIdle()) {
+                detectSceneChange();
+                return;
+            }
+            DecodeOutcome outcome;
+            if (mSingleStream) {
+                // 帧已由相机控制线程复制，这里只取最新一帧
+                long traceStart = mTracer.begin();
+                YuvFrame frame = mFrameExchange.acquire();
+                mTraceFrame = frame != null ? frame.getTimestamp() : 0L;
+                mTracer.end(ScanTracer.SPAN_ACQUIRE, traceStart, flutterTexture.id(), mTraceFrame);
+                outcome = frame != null ? decodeLuminance(frame.getY(), frame.getWidth(), frame.getWidth(), frame.getHeight()) : null;
+            } else {
+                Image image = pictureImageReader.acquireLatestImage();
+                mTraceFrame = image != null ? image.getTimestamp() : 0L;
+                outcome = scanBarcode(image);
+                if (image != null) {
+                    image.close();
+                }
+            }
+            boolean decoded = outcome != null && outcome.isDecoded();
+            if (outcome != null && mScanAssist != null) {
+                mScanAssist.onFrame(outcome.getBrightness(), decoded, outcome.getCodeRatio());
+            }
+            if (outcome != null && mIdleController != null) {
+                mIdleController.onDecodedFrame(decoded, SystemClock.elapsedRealtime());
+            }
+            if (decoded) {
+                mMetrics.decodeSuccess.incrementAndGet();
+                // 同一个码重复识别时直接使用缓存的解析结果
+                long traceStart = mTracer.begin();
+                final ScanResult scanResult = mResultCache.obtain(outcome.getResult(), mPayloadParsers);
+                mTracer.end(ScanTracer.SPAN_PARSE, traceStart, flutterTexture.id(), mTraceFrame);
+                // 扫码成功后，自动停止预览
+                stopPreview(QrcodePlugin.createMockResult());
+                final long frameTimestamp = mTraceFrame;
+                // 与Dart通信只能在主线程
+                mUIHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        long traceStart = mTracer.begin();
+                        dispatchResult(scanResult);
+                        mTracer.end(ScanTracer.SPAN_DISPATCH, traceStart, flutterTexture.id(), frameTimestamp);
+                    }
+                });
+            }
+        }
+    }
 
-            if (pictureImageReader == null) {
+    /**
+     * 空闲状态下只检测画面变化，不识别
+     */
+    private void detectSceneChange() {
+        long traceStart = mTracer.begin();
+        long now = SystemClock.elapsedRealtime();
+        long timestamp;
+        if (mSingleStream) {
+            YuvFrame frame = mFrameExchange.acquire();
+            if (frame == null) {
                 return;
             }
+            timestamp = frame.getTimestamp();
+            mIdleController.onIdleFrame(ByteBuffer.wrap(frame.getY()), frame.getWidth(),
+                    frame.getWidth(), frame.getHeight(), now);
+        } else {
             Image image = pictureImageReader.acquireLatestImage();
-            final String scanResult = scanBarcode(image);
-            if (image != null) {
+            if (image == null) {
+                return;
+            }
+            try {
+                timestamp = image.getTimestamp();
+                Image.Plane plane = image.getPlanes()[0];
+                mIdleController.onIdleFrame(plane.getBuffer(), plane.getRowStride(),
+                        image.getWidth(), image.getHeight(), now);
+            } finally {
                 image.close();
             }
-            if (!TextUtils.isEmpty(scanResult)) {
-                // 扫码成功后，自动停止预览
-                stopPreview(QrcodePlugin.createMockResult());
-                if (mScanListener != null) {
-                    // 与Dart通信只能在主线程
-                    mUIHandler.post(new Runnable() {
-                        @Override
-                        public void run() {
-                            mScanListener.onResult(scanResult);
-                        }
-                    });
+        }
+        mTracer.end(ScanTracer.SPAN_SCENE_DETECT, traceStart, flutterTexture.id(), timestamp);
+    }
+
+    /**
+     * 在主线程中分发识别结果
+     */
+    private void dispatchResult(ScanResult scanResult) {
+        if (eventSink != null) {
+            Map<String, Object> event = describeResult(scanResult);
+            event.put("eventType", "scanResult");
+            eventSink.success(event);
+        }
+    }
+
+    /**
+     * 单路输出模式下在相机控制线程中接收每一帧：复制到帧缓冲、绘制预览，再交给识别线程
+     */
+    private final ImageReader.OnImageAvailableListener mImageAvailableListener = new ImageReader.OnImageAvailableListener() {
+        @Override
+        public void onImageAvailable(ImageReader reader) {
+            synchronized (mReaderLock) {
+                if (pictureImageReader == null) {
+                    return;
+                }
+                Image image = pictureImageReader.acquireLatestImage();
+                if (image == null) {
+                    return;
+                }
+                long traceStart = mTracer.begin();
+                YuvFrame frame = mFrameExchange.backBuffer();
+                try {
+                    Image.Plane[] planes = image.getPlanes();
+                    frame.fill(planes[0].getBuffer(), planes[0].getRowStride(),
+                            planes[1].getBuffer(), planes[2].getBuffer(),
+                            planes[1].getRowStride(), planes[1].getPixelStride(),
+                            image.getWidth(), image.getHeight(), image.getTimestamp());
+                } finally {
+                    image.close();
                 }
+                mTracer.end(ScanTracer.SPAN_COPY_FRAME, traceStart, flutterTexture.id(), frame.getTimestamp());
+                if (mPreviewRenderer != null) {
+                    traceStart = mTracer.begin();
+                    mPreviewRenderer.render(frame);
+                    mTracer.end(ScanTracer.SPAN_RENDER, traceStart, flutterTexture.id(), frame.getTimestamp());
+                }
+                mFrameExchange.publish();
             }
         }
     };
@@ -328,13 +571,25 @@ class Camera {
      * 开始预览
      */
     void startPreview(final MethodChannel.Result result) {
-        if (cameraCaptureSession == null) {
-            result.error("CameraAccess", "The camera has been closed, please initialize first.", null);
-            return;
+        synchronized (mImageLock) {
+            if (mIdleController != null) {
+                // 重新开始计时，停止预览期间不计入空闲判断
+                mIdleController.reset(SystemClock.elapsedRealtime());
+            }
+            if (mScanAssist != null) {
+                // 识别成功后会自动停止预览，重新开始时恢复扫码辅助的补光灯和变焦
+                mScanAssist.reset();
+            }
         }
         try {
-            cameraCaptureSession.setRepeatingRequest(captureRequestBuilder.build(), mCaptureCallback, mCameraHandler);
-            isPreviewing = true;
+            synchronized (mRequestLock) {
+                if (cameraCaptureSession == null) {
+                    result.error("CameraAccess", "The camera has been closed, please initialize first.", null);
+                    return;
+                }
+                cameraCaptureSession.setRepeatingRequest(captureRequestBuilder.build(), mCaptureCallback, mCameraHandler);
+                isPreviewing = true;
+            }
         } catch (CameraAccessException e) {
             e.printStackTrace();
             result.error("CameraAccess", e.getMessage(), null);
@@ -350,25 +605,45 @@ class Camera {
     private void createCaptureSession(
             int templateType, final Runnable onSuccessCallback, Surface... surfaces)
             throws CameraAccessException {
-        // Close any existing capture session.
-        closeCaptureSession();
-
-        // Create a new capture builder.
-        captureRequestBuilder = cameraDevice.createCaptureRequest(templateType);
-
         // Build Flutter surface to render to
         SurfaceTexture surfaceTexture = flutterTexture.surfaceTexture();
-        surfaceTexture.setDefaultBufferSize(previewSize.getWidth(), previewSize.getHeight());
-        Surface flutterSurface = new Surface(surfaceTexture);
-        captureRequestBuilder.addTarget(flutterSurface);
+        Surface flutterSurface;
+        if (mSingleStream) {
+            // Canvas绘制不经过SurfaceTexture的旋转，缓冲区直接使用旋转、缩小后的尺寸
+            PreviewTransform transform = new PreviewTransform(previewSize.getWidth(), previewSize.getHeight(),
+                    mSensorOrientation, mFrontFacing);
+            surfaceTexture.setDefaultBufferSize(transform.getBufferWidth(), transform.getBufferHeight());
+            flutterSurface = new Surface(surfaceTexture);
+            synchronized (mReaderLock) {
+                if (mPreviewRenderer != null) {
+                    mPreviewRenderer.release();
+                }
+                mPreviewRenderer = new PreviewRenderer(flutterSurface, transform);
+            }
+        } else {
+            surfaceTexture.setDefaultBufferSize(previewSize.getWidth(), previewSize.getHeight());
+            flutterSurface = new Surface(surfaceTexture);
+        }
 
         List<Surface> remainingSurfaces = Arrays.asList(surfaces);
-//        if (templateType != CameraDevice.TEMPLATE_PREVIEW) {
-        // If it is not preview mode, add all surfaces as targets.
-        for (Surface surface : remainingSurfaces) {
-            captureRequestBuilder.addTarget(surface);
+        synchronized (mRequestLock) {
+            // Close any existing capture session.
+            closeCaptureSession();
+
+            // Create a new capture builder.
+            captureRequestBuilder = cameraDevice.createCaptureRequest(templateType);
+            // 退出空闲状态时恢复模板默认的帧率
+            mDefaultFpsRange = captureRequestBuilder.get(CaptureRequest.CONTROL_AE_TARGET_FPS_RANGE);
+            if (!mSingleStream) {
+                captureRequestBuilder.addTarget(flutterSurface);
+            }
+//            if (templateType != CameraDevice.TEMPLATE_PREVIEW) {
+            // If it is not preview mode, add all surfaces as targets.
+            for (Surface surface : remainingSurfaces) {
+                captureRequestBuilder.addTarget(surface);
+            }
+//            }
         }
-//        }
 
         // Prepare the callback
         CameraCaptureSession.StateCallback callback =
@@ -376,15 +651,18 @@ class Camera {
                     @Override
                     public void onConfigured(@NonNull CameraCaptureSession session) {
                         try {
-                            if (cameraDevice == null) {
-                                sendEvent(EventType.ERROR, "The camera was closed during configuration.");
-                                return;
+                            synchronized (mRequestLock) {
+                                if (cameraDevice == null) {
+                                    sendEvent(EventType.ERROR, "The camera was closed during configuration.");
+                                    return;
+                                }
+                                cameraCaptureSession = session;
+                                captureRequestBuilder.set(
+                                        CaptureRequest.CONTROL_MODE, CameraMetadata.CONTROL_MODE_AUTO);
+                                applyControls(captureRequestBuilder);
+                                cameraCaptureSession.setRepeatingRequest(captureRequestBuilder.build(), mCaptureCallback, mCameraHandler);
+                                isPreviewing = true;
                             }
-                            cameraCaptureSession = session;
-                            captureRequestBuilder.set(
-                                    CaptureRequest.CONTROL_MODE, CameraMetadata.CONTROL_MODE_AUTO);
-                            cameraCaptureSession.setRepeatingRequest(captureRequestBuilder.build(), mCaptureCallback, mCameraHandler);
-                            isPreviewing = true;
                             if (onSuccessCallback != null) {
                                 onSuccessCallback.run();
                             }
@@ -401,7 +679,9 @@ class Camera {
 
         // Collect all surfaces we want to render to.
         List<Surface> surfaceList = new ArrayList<>();
-        surfaceList.add(flutterSurface);
+        if (!mSingleStream) {
+            surfaceList.add(flutterSurface);
+        }
         surfaceList.addAll(remainingSurfaces);
         // Start the session
         cameraDevice.createCaptureSession(surfaceList, callback, null);
@@ -411,14 +691,15 @@ class Camera {
      * 停止预览
      */
     void stopPreview(@NonNull final MethodChannel.Result result) {
-        if (cameraCaptureSession == null) {
-            result.error("CameraAccess", "The camera has been closed, please initialize first.", null);
-            return;
-        }
-
         try {
-            cameraCaptureSession.stopRepeating();
-            isPreviewing = false;
+            synchronized (mRequestLock) {
+                if (cameraCaptureSession == null) {
+                    result.error("CameraAccess", "The camera has been closed, please initialize first.", null);
+                    return;
+                }
+                cameraCaptureSession.stopRepeating();
+                isPreviewing = false;
+            }
             Map<String, Object> reply = new HashMap<>();
             reply.put("textureId", flutterTexture.id());
             result.success(reply);
@@ -429,6 +710,137 @@ class Camera {
         }
     }
 
+    /**
+     * 打开或关闭补光灯
+     */
+    void setTorch(boolean enable, @NonNull final MethodChannel.Result result) {
+        if (!mTorchAvailable) {
+            result.error("CameraControl", "The camera has no flash unit.", null);
+            return;
+        }
+        synchronized (mRequestLock) {
+            mTorch = enable;
+            updateRepeatingRequest(result);
+        }
+    }
+
+    /**
+     * 设置数码变焦倍数，超出范围时取边界值
+     */
+    void setZoom(double zoom, @NonNull final MethodChannel.Result result) {
+        synchronized (mRequestLock) {
+            mZoom = (float) Math.max(1d, Math.min(zoom, mMaxZoom));
+            updateRepeatingRequest(result);
+        }
+    }
+
+    /**
+     * 设置曝光补偿，单位为exposureStep，超出范围时取边界值
+     */
+    void setExposure(int compensation, @NonNull final MethodChannel.Result result) {
+        synchronized (mRequestLock) {
+            mExposure = mExposureRange.clamp(compensation);
+            updateRepeatingRequest(result);
+        }
+    }
+
+    /**
+     * 开启或关闭扫码辅助，关闭时恢复自动调整的补光灯和变焦
+     */
+    void setScanAssist(boolean enable, @NonNull final MethodChannel.Result result) {
+        synchronized (mImageLock) {
+            if (enable && mScanAssist == null) {
+                mScanAssist = new ScanAssistController(mAssistActuator, mTorchAvailable, mMaxZoom);
+            } else if (!enable && mScanAssist != null) {
+                mScanAssist.reset();
+                mScanAssist = null;
+            }
+        }
+        result.success(null);
+    }
+
+    private final ScanAssistController.Actuator mAssistActuator = new ScanAssistController.Actuator() {
+        @Override
+        public void setAssistTorch(boolean enable) {
+            if (enable) {
+                mMetrics.assistTorchActivations.incrementAndGet();
+            }
+            synchronized (mRequestLock) {
+                mAssistTorch = enable;
+                updateRepeatingRequest(QrcodePlugin.createMockResult());
+            }
+        }
+
+        @Override
+        public void setAssistZoom(float zoom) {
+            if (zoom > 1f) {
+                mMetrics.assistZoomActivations.incrementAndGet();
+            }
+            synchronized (mRequestLock) {
+                mAssistZoom = zoom;
+                updateRepeatingRequest(QrcodePlugin.createMockResult());
+            }
+        }
+    };
+
+    private final IdleController.Actuator mIdleActuator = new IdleController.Actuator() {
+        @Override
+        public void setIdle(boolean idle) {
+            synchronized (mImageLock) {
+                if (idle && mScanAssist != null) {
+                    // 空闲时关闭扫码辅助打开的补光灯
+                    mScanAssist.reset();
+                }
+                synchronized (mRequestLock) {
+                    mIdle = idle;
+                    updateRepeatingRequest(QrcodePlugin.createMockResult());
+                }
+            }
+        }
+    };
+
+    /**
+     * 将补光灯、变焦、曝光和帧率设置写入预览请求，预览中时立即生效。调用时需持有mRequestLock
+     */
+    private void updateRepeatingRequest(@NonNull final MethodChannel.Result result) {
+        if (captureRequestBuilder == null) {
+            // 尚未创建预览会话，创建时会应用设置
+            result.success(null);
+            return;
+        }
+        applyControls(captureRequestBuilder);
+        if (cameraCaptureSession == null || !isPreviewing) {
+            result.success(null);
+            return;
+        }
+        try {
+            cameraCaptureSession.setRepeatingRequest(captureRequestBuilder.build(), mCaptureCallback, mCameraHandler);
+            result.success(null);
+        } catch (CameraAccessException | IllegalStateException e) {
+            e.printStackTrace();
+            result.error("CameraAccess", e.getMessage(), null);
+        }
+    }
+
+    private void applyControls(CaptureRequest.Builder builder) {
+        builder.set(CaptureRequest.CONTROL_AE_MODE, CameraMetadata.CONTROL_AE_MODE_ON);
+        builder.set(CaptureRequest.FLASH_MODE,
+                mTorch || mAssistTorch ? CameraMetadata.FLASH_MODE_TORCH : CameraMetadata.FLASH_MODE_OFF);
+        builder.set(CaptureRequest.CONTROL_AE_EXPOSURE_COMPENSATION, mExposure);
+        Range<Integer> fpsRange = mIdle && mIdleFpsRange != null ? mIdleFpsRange : mDefaultFpsRange;
+        if (fpsRange != null) {
+            builder.set(CaptureRequest.CONTROL_AE_TARGET_FPS_RANGE, fpsRange);
+        }
+        if (mActiveArraySize != null) {
+            float zoom = Math.min(mZoom * mAssistZoom, mMaxZoom);
+            int cropWidth = (int) (mActiveArraySize.width() / zoom);
+            int cropHeight = (int) (mActiveArraySize.height() / zoom);
+            int left = (mActiveArraySize.width() - cropWidth) / 2;
+            int top = (mActiveArraySize.height() - cropHeight) / 2;
+            builder.set(CaptureRequest.SCALER_CROP_REGION, new Rect(left, top, left + cropWidth, top + cropHeight));
+        }
+    }
+
     private void sendEvent(EventType eventType) {
         sendEvent(eventType, null);
     }
@@ -452,24 +864,38 @@ class Camera {
 
     void dispose() {
         close();
+        if (mDisposed) {
+            return;
+        }
+        mDisposed = true;
+        mDecodeSlot.cancel();
         flutterTexture.release();
+        mExecutors.release();
     }
 
 
     void close() {
-        closeCaptureSession();
+        synchronized (mImageLock) {
+            synchronized (mReaderLock) {
+                synchronized (mRequestLock) {
+                    isPreviewing = false;
+                    closeCaptureSession();
+                }
 
-        if (cameraDevice != null) {
-            cameraDevice.close();
-            cameraDevice = null;
-        }
-        if (pictureImageReader != null) {
-            pictureImageReader.setOnImageAvailableListener(null, null);
-            pictureImageReader.close();
-            pictureImageReader = null;
-        }
-        if (mCameraHandler != null) {
-            mCameraHandler.getLooper().quit();
+                if (cameraDevice != null) {
+                    cameraDevice.close();
+                    cameraDevice = null;
+                }
+                if (pictureImageReader != null) {
+                    pictureImageReader.setOnImageAvailableListener(null, null);
+                    pictureImageReader.close();
+                    pictureImageReader = null;
+                }
+                if (mPreviewRenderer != null) {
+                    mPreviewRenderer.release();
+                    mPreviewRenderer = null;
+                }
+            }
         }
     }
 
@@ -0,0 +1,165 @@
+package com.qfpay.qrcode_plugin;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * @Description: 相机控制线程与识别线程池，所有相机实例共享。
+ * 由{@link RefCountedLifecycle}按引用计数管理生命周期，最后一个相机释放后空闲一段时间再退出线程，避免频繁初始化时反复创建线程
+ * @CreateDate: 2026-10-18 22:10
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin
+ * @ClassName: CameraExecutors
+ */
+class CameraExecutors {
+    // 最后一个相机释放后线程保留的时长
+    static final long IDLE_TIMEOUT_MS = 5000;
+    static final int DEFAULT_CONTROL_PRIORITY = Process.THREAD_PRIORITY_DEFAULT;
+    static final int DEFAULT_DECODE_PRIORITY = Process.THREAD_PRIORITY_DEFAULT;
+    // 识别线程数，多相机时并行识别，单相机时同一时间只有一个线程在工作
+    static final int DECODE_WORKERS = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1));
+
+    private static CameraExecutors sInstance;
+
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    // 引用计数和延迟退出，锁顺序为先mLifecycle后this
+    private final RefCountedLifecycle mLifecycle = new RefCountedLifecycle(
+            new RefCountedLifecycle.Resource() {
+                @Override
+                public void start() {
+                    startThreads();
+                }
+
+                @Override
+                public void stop() {
+                    stopThreads();
+                }
+            },
+            new RefCountedLifecycle.Scheduler() {
+                @Override
+                public void postDelayed(Runnable task, long delayMillis) {
+                    mMainHandler.postDelayed(task, delayMillis);
+                }
+
+                @Override
+                public void cancel(Runnable task) {
+                    mMainHandler.removeCallbacks(task);
+                }
+            },
+            IDLE_TIMEOUT_MS);
+
+    private HandlerThread mControlThread;
+    private Handler mControlHandler;
+    private DecodeWorkerPool mDecodePool;
+    // 存活的识别线程的tid，用于调整优先级，线程启动时加入、退出时移除
+    private final List<Integer> mDecodeTids = new ArrayList<>();
+    private int mControlPriority = DEFAULT_CONTROL_PRIORITY;
+    private int mDecodePriority = DEFAULT_DECODE_PRIORITY;
+
+    static synchronized CameraExecutors getInstance() {
+        if (sInstance == null) {
+            sInstance = new CameraExecutors();
+        }
+        return sInstance;
+    }
+
+    private CameraExecutors() {
+    }
+
+    /**
+     * 相机创建时调用，线程未启动时启动线程
+     */
+    void acquire() {
+        mLifecycle.acquire();
+    }
+
+    /**
+     * 相机释放时调用，与{@link #acquire()}一一对应
+     */
+    void release() {
+        mLifecycle.release();
+    }
+
+    /**
+     * 退出线程，已投递的任务执行完后线程结束。仍有相机使用时不做处理
+     */
+    void shutdown() {
+        mLifecycle.stopIfUnused();
+    }
+
+    private synchronized void startThreads() {
+        mControlThread = new HandlerThread("QrcodeCameraControl", mControlPriority);
+        mControlThread.start();
+        mControlHandler = new Handler(mControlThread.getLooper());
+        mDecodePool = new DecodeWorkerPool(DECODE_WORKERS, mDecodeThreadFactory);
+    }
+
+    private synchronized void stopThreads() {
+        mControlThread.quitSafely();
+        mDecodePool.shutdown();
+        mControlThread = null;
+        mControlHandler = null;
+        mDecodePool = null;
+    }
+
+    private final ThreadFactory mDecodeThreadFactory = new ThreadFactory() {
+        private int mCount = 0;
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            return new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Integer tid = Process.myTid();
+                    // 与setPriorities使用同一把锁，启动期间修改的优先级不会丢失
+                    synchronized (CameraExecutors.this) {
+                        mDecodeTids.add(tid);
+                        Process.setThreadPriority(mDecodePriority);
+                    }
+                    try {
+                        runnable.run();
+                    } finally {
+                        synchronized (CameraExecutors.this) {
+                            mDecodeTids.remove(tid);
+                        }
+                    }
+                }
+            }, "QrcodeDecode-" + (mCount++));
+        }
+    };
+
+    /**
+     * 设置线程优先级，取值为{@link Process}中的THREAD_PRIORITY_*，线程已启动时立即生效，
+     * 之后启动的线程也使用该优先级
+     */
+    synchronized void setPriorities(int controlPriority, int decodePriority) {
+        mControlPriority = controlPriority;
+        mDecodePriority = decodePriority;
+        if (mControlThread != null) {
+            Process.setThreadPriority(mControlThread.getThreadId(), controlPriority);
+        }
+        for (int tid : mDecodeTids) {
+            Process.setThreadPriority(tid, decodePriority);
+        }
+    }
+
+    /**
+     * 相机控制线程，处理预览请求回调。需要在{@link #acquire()}之后调用
+     */
+    synchronized Handler controlHandler() {
+        return mControlHandler;
+    }
+
+    /**
+     * 识别线程池。需要在{@link #acquire()}之后调用
+     */
+    synchronized DecodeWorkerPool decodePool() {
+        return mDecodePool;
+    }
+}
@@ -0,0 +1,115 @@
+package com.qfpay.qrcode_plugin;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.Result;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Description: 识别结果缓存，以原始字节、条码格式和启用的解析器为key，按LRU淘汰。
+ * 连续识别同一个码时直接返回已解析的结果，避免重复解析
+ * @CreateDate: 2026-10-18 10:31
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin
+ * @ClassName: DecodeResultCache
+ */
+class DecodeResultCache {
+    static final int DEFAULT_CAPACITY = 32;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final LinkedHashMap<Key, ScanResult> entries;
+    private final ScanMetrics metrics;
+
+    DecodeResultCache(final int capacity, ScanMetrics metrics) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive: " + capacity);
+        }
+        this.metrics = metrics;
+        this.entries = new LinkedHashMap<Key, ScanResult>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, ScanResult> eldest) {
+                if (size() > capacity) {
+                    DecodeResultCache.this.metrics.cacheEvictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 获取解析后的识别结果，未命中时解析并放入缓存
+     *
+     * @param rawResult 解码结果
+     * @param parsers   启用的内容解析器，不同的解析器组合分别缓存
+     * @return 结构化的识别结果
+     */
+    ScanResult obtain(Result rawResult, List<PayloadParser> parsers) {
+        Key key = Key.of(rawResult, parsers);
+        synchronized (entries) {
+            ScanResult cached = entries.get(key);
+            if (cached != null) {
+                metrics.cacheHits.incrementAndGet();
+                return cached;
+            }
+        }
+        metrics.cacheMisses.incrementAndGet();
+        // 解析放在锁外进行
+        ScanResult parsed = ScanResult.parse(rawResult, parsers);
+        synchronized (entries) {
+            entries.put(key, parsed);
+        }
+        return parsed;
+    }
+
+    void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private static final class Key {
+        private final BarcodeFormat format;
+        private final byte[] bytes;
+        private final List<PayloadParser> parsers;
+        private final int hash;
+
+        private Key(BarcodeFormat format, byte[] bytes, List<PayloadParser> parsers) {
+            this.format = format;
+            this.bytes = bytes;
+            this.parsers = parsers;
+            this.hash = 31 * (31 * format.hashCode() + Arrays.hashCode(bytes)) + parsers.hashCode();
+        }
+
+        static Key of(Result result, List<PayloadParser> parsers) {
+            byte[] bytes = result.getRawBytes();
+            if (bytes == null) {
+                // 部分格式(如一维码)没有原始字节，使用文本内容代替
+                bytes = result.getText().getBytes(UTF_8);
+            }
+            return new Key(result.getBarcodeFormat(), bytes, parsers);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && format == other.format && Arrays.equals(bytes, other.bytes)
+                    && parsers.equals(other.parsers);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.qfpay.qrcode_plugin;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * @Description: 识别线程池，所有相机共享。每个相机对应一个{@link Slot}，
+ * 同一相机同一时间最多排队或执行一个识别任务，忙时新帧直接丢弃；
+ * 排队按先进先出，多个相机之间轮流执行，不会出现一个相机占满线程池的情况
+ * @CreateDate: 2026-10-18 22:17
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin
+ * @ClassName: DecodeWorkerPool
+ */
+class DecodeWorkerPool {
+    private static final int IDLE = 0;
+    private static final int QUEUED = 1;
+    private static final int RUNNING = 2;
+
+    private final ArrayDeque<Slot> mQueue = new ArrayDeque<>();
+    private boolean mShutdown = false;
+
+    /**
+     * 识别任务槽，由相机持有
+     */
+    class Slot {
+        private final Runnable mTask;
+        private int mState = IDLE;
+
+        private Slot(Runnable task) {
+            this.mTask = task;
+        }
+
+        /**
+         * 投递一次识别
+         *
+         * @return 已投递返回true，上一次识别尚未完成时返回false
+         */
+        boolean schedule() {
+            synchronized (mQueue) {
+                if (mShutdown || mState != IDLE) {
+                    return false;
+                }
+                mState = QUEUED;
+                mQueue.addLast(this);
+                mQueue.notify();
+                return true;
+            }
+        }
+
+        /**
+         * 取消排队中的任务，正在执行的任务不受影响
+         */
+        void cancel() {
+            synchronized (mQueue) {
+                if (mState == QUEUED) {
+                    mQueue.remove(this);
+                    mState = IDLE;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param workers       线程数
+     * @param threadFactory 创建工作线程，可在其中设置线程优先级
+     */
+    DecodeWorkerPool(int workers, ThreadFactory threadFactory) {
+        Runnable loop = new Runnable() {
+            @Override
+            public void run() {
+                runWorker();
+            }
+        };
+        for (int i = 0; i < workers; i++) {
+            threadFactory.newThread(loop).start();
+        }
+    }
+
+    Slot newSlot(Runnable task) {
+        return new Slot(task);
+    }
+
+    private void runWorker() {
+        while (true) {
+            Slot slot;
+            synchronized (mQueue) {
+                while (mQueue.isEmpty() && !mShutdown) {
+                    try {
+                        mQueue.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (mShutdown) {
+                    return;
+                }
+                slot = mQueue.pollFirst();
+                slot.mState = RUNNING;
+            }
+            try {
+                slot.mTask.run();
+            } finally {
+                synchronized (mQueue) {
+                    slot.mState = IDLE;
+                }
+            }
+        }
+    }
+
+    /**
+     * 丢弃排队中的任务并结束工作线程，正在执行的任务会执行完
+     */
+    void shutdown() {
+        synchronized (mQueue) {
+            mShutdown = true;
+            for (Slot slot : mQueue) {
+                slot.mState = IDLE;
+            }
+            mQueue.clear();
+            mQueue.notifyAll();
+        }
+    }
+}
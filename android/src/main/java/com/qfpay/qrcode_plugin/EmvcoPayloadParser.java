@@ -0,0 +1,138 @@
+package com.qfpay.qrcode_plugin;
+
+import com.google.zxing.BarcodeFormat;
+
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @Description: EMVCo商户主扫码(Merchant-Presented QR)解析器，
+ * 按"ID(2位)+长度(2位)+值"的TLV格式解析，并校验CRC(ID 63)
+ * @CreateDate: 2026-10-18 14:40
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin
+ * @ClassName: EmvcoPayloadParser
+ */
+class EmvcoPayloadParser implements PayloadParser {
+    static final String NAME = "emvco";
+
+    private static final String PAYLOAD_FORMAT_INDICATOR = "000201";
+    private static final String CRC_ID = "63";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    // 常用数据对象名称，未列出的ID按原ID返回
+    private static final Map<String, String> NAMES = new HashMap<>();
+
+    static {
+        NAMES.put("00", "payloadFormatIndicator");
+        NAMES.put("01", "pointOfInitiationMethod");
+        NAMES.put("52", "merchantCategoryCode");
+        NAMES.put("53", "transactionCurrency");
+        NAMES.put("54", "transactionAmount");
+        NAMES.put("55", "tipOrConvenienceIndicator");
+        NAMES.put("56", "convenienceFeeFixed");
+        NAMES.put("57", "convenienceFeePercentage");
+        NAMES.put("58", "countryCode");
+        NAMES.put("59", "merchantName");
+        NAMES.put("60", "merchantCity");
+        NAMES.put("61", "postalCode");
+        NAMES.put("62", "additionalData");
+        NAMES.put("63", "crc");
+        NAMES.put("64", "merchantInformationLanguage");
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Map<String, Object> parse(String content, BarcodeFormat format) {
+        if (content == null || !content.startsWith(PAYLOAD_FORMAT_INDICATOR)) {
+            return null;
+        }
+        Map<String, Object> fields = parseTemplate(content, 0, content.length(), true);
+        if (fields == null) {
+            return null;
+        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("fields", fields);
+        payload.put("crcValid", isCrcValid(content));
+        return payload;
+    }
+
+    /**
+     * 解析[start, end)区间内的TLV数据对象
+     *
+     * @param topLevel 是否为顶层，顶层的模板类ID需要继续解析
+     * @return 解析结果，格式错误时返回null
+     */
+    private static Map<String, Object> parseTemplate(String content, int start, int end, boolean topLevel) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        int pos = start;
+        while (pos < end) {
+            if (pos + 4 > end) {
+                return null;
+            }
+            int id = parseTwoDigits(content, pos);
+            int length = parseTwoDigits(content, pos + 2);
+            if (id < 0 || length < 0 || pos + 4 + length > end) {
+                return null;
+            }
+            int valueStart = pos + 4;
+            int valueEnd = valueStart + length;
+            String key = content.substring(pos, pos + 2);
+            Object value = null;
+            if (topLevel && isTemplate(id)) {
+                value = parseTemplate(content, valueStart, valueEnd, false);
+            }
+            if (value == null) {
+                value = content.substring(valueStart, valueEnd);
+            }
+            String name = topLevel ? NAMES.get(key) : null;
+            fields.put(name != null ? name : key, value);
+            pos = valueEnd;
+        }
+        return fields;
+    }
+
+    // 26-51商户账户信息，62附加数据，64语言模板，80-99为未保留模板
+    private static boolean isTemplate(int id) {
+        return (id >= 26 && id <= 51) || id == 62 || id == 64 || id >= 80;
+    }
+
+    private static int parseTwoDigits(String content, int pos) {
+        char high = content.charAt(pos);
+        char low = content.charAt(pos + 1);
+        if (high < '0' || high > '9' || low < '0' || low > '9') {
+            return -1;
+        }
+        return (high - '0') * 10 + (low - '0');
+    }
+
+    /**
+     * CRC为最后一个数据对象，按CRC-16/CCITT-FALSE计算"6304"及之前全部内容的UTF-8字节
+     */
+    private static boolean isCrcValid(String content) {
+        int length = content.length();
+        if (length < 8 || !content.regionMatches(length - 8, CRC_ID + "04", 0, 4)) {
+            return false;
+        }
+        byte[] data = content.substring(0, length - 4).getBytes(UTF_8);
+        int crc = 0xFFFF;
+        for (byte b : data) {
+            crc ^= (b & 0xFF) << 8;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 0x8000) != 0 ? (crc << 1) ^ 0x1021 : crc << 1;
+            }
+            crc &= 0xFFFF;
+        }
+        try {
+            return crc == Integer.parseInt(content.substring(length - 4), 16);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.qfpay.qrcode_plugin;
+
+/**
+ * @Description: 相机线程与识别线程之间的帧交换(三缓冲)。
+ * 生产者写入back缓冲后发布，消费者取走最新一帧，两边互不等待，中间未取走的帧被覆盖
+ * @CreateDate: 2026-10-18 20:25
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin
+ * @ClassName: FrameExchange
+ */
+class FrameExchange {
+    private YuvFrame mBack = new YuvFrame();
+    private YuvFrame mLatest = new YuvFrame();
+    private YuvFrame mFront = new YuvFrame();
+    private boolean mHasNew = false;
+
+    /**
+     * 生产者获取可写入的缓冲，只能在生产者线程使用，直到调用{@link #publish()}
+     */
+    YuvFrame backBuffer() {
+        return mBack;
+    }
+
+    /**
+     * 发布back缓冲中的帧
+     */
+    synchronized void publish() {
+        YuvFrame published = mBack;
+        mBack = mLatest;
+        mLatest = published;
+        mHasNew = true;
+    }
+
+    /**
+     * 消费者取走最新一帧，返回的缓冲在下次调用前不会被生产者修改
+     *
+     * @return 最新一帧，没有新帧时返回null
+     */
+    synchronized YuvFrame acquire() {
+        if (!mHasNew) {
+            return null;
+        }
+        YuvFrame latest = mLatest;
+        mLatest = mFront;
+        mFront = latest;
+        mHasNew = false;
+        return latest;
+    }
+}
@@ -0,0 +1,281 @@
+package com.qfpay.qrcode_plugin;
+
+import com.google.zxing.BarcodeFormat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Description: GS1应用标识符(AI)解析器，基于AI表按位置切分元素。
+ * 支持带符号标识前缀(]C1、]d2、]Q3、]e0)以GS分隔的格式，以及"(01)...(10)..."括号格式。
+ * GTIN、SSCC、GLN等带校验位的定长编号，在元素的checkDigitValid中返回校验结果
+ * @CreateDate: 2026-10-18 14:12
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin
+ * @ClassName: Gs1PayloadParser
+ */
+class Gs1PayloadParser implements PayloadParser {
+    static final String NAME = "gs1";
+
+    // 组分隔符FNC1
+    private static final char GS = 29;
+    private static final String[] SYMBOLOGY_IDENTIFIERS = {"]C1", "]e0", "]d2", "]Q3", "]J1"};
+
+    /**
+     * AI表项，prefix为AI固定部分，aiLength为AI总长度(如310n的prefix为310，aiLength为4)，
+     * dataLength大于0时为定长数据，checkDigit为true时最后一位为GS1校验位
+     */
+    private static final class Ai {
+        final String prefix;
+        final int aiLength;
+        final int dataLength;
+        final int maxLength;
+        final String title;
+        final boolean checkDigit;
+
+        Ai(String prefix, int aiLength, int dataLength, int maxLength, String title, boolean checkDigit) {
+            this.prefix = prefix;
+            this.aiLength = aiLength;
+            this.dataLength = dataLength;
+            this.maxLength = maxLength;
+            this.title = title;
+            this.checkDigit = checkDigit;
+        }
+    }
+
+    private static Ai fixed(String prefix, int aiLength, int length, String title) {
+        return new Ai(prefix, aiLength, length, length, title, false);
+    }
+
+    // 带校验位的定长编号
+    private static Ai key(String prefix, int aiLength, int length, String title) {
+        return new Ai(prefix, aiLength, length, length, title, true);
+    }
+
+    private static Ai variable(String prefix, int aiLength, int maxLength, String title) {
+        return new Ai(prefix, aiLength, 0, maxLength, title, false);
+    }
+
+    private static final Ai[] AI_TABLE = {
+            key("00", 2, 18, "SSCC"),
+            key("01", 2, 14, "GTIN"),
+            key("02", 2, 14, "CONTENT"),
+            variable("10", 2, 20, "BATCH/LOT"),
+            fixed("11", 2, 6, "PROD DATE"),
+            fixed("12", 2, 6, "DUE DATE"),
+            fixed("13", 2, 6, "PACK DATE"),
+            fixed("15", 2, 6, "BEST BEFORE"),
+            fixed("16", 2, 6, "SELL BY"),
+            fixed("17", 2, 6, "USE BY"),
+            fixed("20", 2, 2, "VARIANT"),
+            variable("21", 2, 20, "SERIAL"),
+            variable("22", 2, 20, "CPV"),
+            variable("240", 3, 30, "ADDITIONAL ID"),
+            variable("241", 3, 30, "CUST. PART No."),
+            variable("250", 3, 30, "SECONDARY SERIAL"),
+            variable("251", 3, 30, "REF. TO SOURCE"),
+            variable("253", 3, 30, "GDTI"),
+            variable("254", 3, 20, "GLN EXTENSION COMPONENT"),
+            variable("30", 2, 8, "VAR. COUNT"),
+            fixed("310", 4, 6, "NET WEIGHT (kg)"),
+            fixed("320", 4, 6, "NET WEIGHT (lb)"),
+            fixed("330", 4, 6, "GROSS WEIGHT (kg)"),
+            variable("37", 2, 8, "COUNT"),
+            variable("390", 4, 15, "AMOUNT"),
+            variable("391", 4, 18, "AMOUNT"),
+            variable("392", 4, 15, "PRICE"),
+            variable("393", 4, 18, "PRICE"),
+            variable("400", 3, 30, "ORDER NUMBER"),
+            variable("401", 3, 30, "GINC"),
+            key("402", 3, 17, "GSIN"),
+            variable("403", 3, 30, "ROUTE"),
+            key("410", 3, 13, "SHIP TO LOC"),
+            key("411", 3, 13, "BILL TO"),
+            key("412", 3, 13, "PURCHASE FROM"),
+            key("413", 3, 13, "SHIP FOR LOC"),
+            key("414", 3, 13, "LOC No"),
+            variable("420", 3, 20, "SHIP TO POST"),
+            variable("421", 3, 12, "SHIP TO POST"),
+            fixed("422", 3, 3, "ORIGIN"),
+            fixed("7003", 4, 10, "EXPIRY TIME"),
+            variable("8004", 4, 30, "GIAI"),
+            fixed("8005", 4, 6, "PRICE PER UNIT"),
+            variable("8020", 4, 25, "REF No"),
+            variable("90", 2, 30, "INTERNAL"),
+            variable("91", 2, 90, "INTERNAL"),
+            variable("92", 2, 90, "INTERNAL"),
+            variable("93", 2, 90, "INTERNAL"),
+            variable("94", 2, 90, "INTERNAL"),
+            variable("95", 2, 90, "INTERNAL"),
+            variable("96", 2, 90, "INTERNAL"),
+            variable("97", 2, 90, "INTERNAL"),
+            variable("98", 2, 90, "INTERNAL"),
+            variable("99", 2, 90, "INTERNAL"),
+    };
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Map<String, Object> parse(String content, BarcodeFormat format) {
+        if (content == null || content.isEmpty()) {
+            return null;
+        }
+        List<Map<String, Object>> elements;
+        if (content.charAt(0) == '(') {
+            elements = parseBracketed(content);
+        } else {
+            int start = symbologyIdentifierLength(content);
+            if (start == 0 && format != BarcodeFormat.RSS_EXPANDED) {
+                // 没有GS1标识的普通码
+                return null;
+            }
+            elements = parseDelimited(content, start);
+        }
+        if (elements == null || elements.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Map<String, Object> element : elements) {
+            values.put((String) element.get("ai"), element.get("value"));
+        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("elements", elements);
+        payload.put("values", values);
+        return payload;
+    }
+
+    private static int symbologyIdentifierLength(String content) {
+        for (String identifier : SYMBOLOGY_IDENTIFIERS) {
+            if (content.startsWith(identifier)) {
+                return identifier.length();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 解析以GS分隔的元素串，定长AI之后不需要分隔符
+     */
+    private static List<Map<String, Object>> parseDelimited(String content, int start) {
+        List<Map<String, Object>> elements = new ArrayList<>();
+        int length = content.length();
+        int pos = start;
+        while (pos < length) {
+            if (content.charAt(pos) == GS) {
+                pos++;
+                continue;
+            }
+            Ai ai = lookup(content, pos);
+            if (ai == null) {
+                return null;
+            }
+            int dataStart = pos + ai.aiLength;
+            int dataEnd;
+            if (ai.dataLength > 0) {
+                dataEnd = dataStart + ai.dataLength;
+                if (dataEnd > length) {
+                    return null;
+                }
+            } else {
+                dataEnd = content.indexOf(GS, dataStart);
+                if (dataEnd < 0) {
+                    dataEnd = length;
+                }
+                if (dataEnd - dataStart > ai.maxLength) {
+                    return null;
+                }
+            }
+            elements.add(element(ai, content.substring(pos, dataStart), content.substring(dataStart, dataEnd)));
+            pos = dataEnd;
+        }
+        return elements;
+    }
+
+    /**
+     * 解析"(AI)数据"格式，例如ZXing对RSS Expanded的输出
+     */
+    private static List<Map<String, Object>> parseBracketed(String content) {
+        List<Map<String, Object>> elements = new ArrayList<>();
+        int length = content.length();
+        int pos = 0;
+        while (pos < length) {
+            if (content.charAt(pos) != '(') {
+                return null;
+            }
+            int close = content.indexOf(')', pos + 1);
+            if (close < 0) {
+                return null;
+            }
+            Ai ai = lookup(content, pos + 1);
+            if (ai == null || ai.aiLength != close - pos - 1) {
+                return null;
+            }
+            int next = content.indexOf('(', close + 1);
+            if (next < 0) {
+                next = length;
+            }
+            int dataLength = next - close - 1;
+            if (dataLength > ai.maxLength || (ai.dataLength > 0 && dataLength != ai.dataLength)) {
+                return null;
+            }
+            elements.add(element(ai, content.substring(pos + 1, close), content.substring(close + 1, next)));
+            pos = next;
+        }
+        return elements;
+    }
+
+    private static Ai lookup(String content, int pos) {
+        for (Ai ai : AI_TABLE) {
+            if (content.regionMatches(pos, ai.prefix, 0, ai.prefix.length())
+                    && isDigits(content, pos + ai.prefix.length(), pos + ai.aiLength)) {
+                return ai;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isDigits(String content, int start, int end) {
+        if (end > content.length()) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = content.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Map<String, Object> element(Ai ai, String code, String value) {
+        Map<String, Object> element = new HashMap<>();
+        element.put("ai", code);
+        element.put("title", ai.title);
+        element.put("value", value);
+        if (ai.checkDigit) {
+            element.put("checkDigitValid", isCheckDigitValid(value));
+        }
+        return element;
+    }
+
+    /**
+     * GS1模10校验：从校验位左边一位开始，向左依次乘3、1、3...求和，校验位使总和为10的倍数
+     */
+    static boolean isCheckDigitValid(String value) {
+        if (value.length() < 2 || !isDigits(value, 0, value.length())) {
+            return false;
+        }
+        int last = value.length() - 1;
+        int sum = 0;
+        for (int i = last - 1, weight = 3; i >= 0; i--, weight = 4 - weight) {
+            sum += (value.charAt(i) - '0') * weight;
+        }
+        return (10 - sum % 10) % 10 == value.charAt(last) - '0';
+    }
+}
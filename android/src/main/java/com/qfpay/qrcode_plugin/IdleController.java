@@ -0,0 +1,171 @@
+package com.qfpay.qrcode_plugin;
+
+import java.nio.ByteBuffer;
+
+/**
+ * @Description: 空闲扫码控制器。一段时间内没有识别出码时进入空闲状态，由相机降低帧率，
+ * 识别线程不再识别，只对Y平面降采样后检测画面变化；画面变化时立即恢复全速识别。
+ * 状态切换次数和各状态的时长记录在{@link ScanMetrics}中。只能在识别线程中使用
+ * @CreateDate: 2026-10-18 22:21
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin
+ * @ClassName: IdleController
+ */
+class IdleController {
+    // 降采样网格，每个格子取SAMPLES_PER_CELL * SAMPLES_PER_CELL个像素的平均值
+    static final int GRID_COLUMNS = 32;
+    static final int GRID_ROWS = 24;
+    static final int SAMPLES_PER_CELL = 4;
+    // 格子平均亮度变化超过此值(0~255)认为该格子有变化
+    static final int CELL_CHANGE_THRESHOLD = 16;
+    // 有变化的格子比例超过此值认为画面变化
+    static final float SCENE_CHANGE_RATIO = 0.05f;
+
+    interface Actuator {
+        void setIdle(boolean idle);
+    }
+
+    private final Actuator mActuator;
+    private final long mIdleTimeoutMillis;
+    private final ScanMetrics mMetrics;
+
+    private boolean mIdle = false;
+    private long mLastActivity;
+    private long mLastAccounted;
+    private int[] mReference = new int[GRID_COLUMNS * GRID_ROWS];
+    private int[] mCurrent = new int[GRID_COLUMNS * GRID_ROWS];
+    private boolean mHasReference = false;
+
+    /**
+     * @param actuator          执行帧率切换的相机
+     * @param idleTimeoutMillis 多久没有识别出码后进入空闲状态
+     * @param metrics           统计指标
+     * @param now               当前时间(毫秒)
+     */
+    IdleController(Actuator actuator, long idleTimeoutMillis, ScanMetrics metrics, long now) {
+        this.mActuator = actuator;
+        this.mIdleTimeoutMillis = idleTimeoutMillis;
+        this.mMetrics = metrics;
+        this.mLastActivity = now;
+        this.mLastAccounted = now;
+    }
+
+    /**
+     * Dart层传入的空闲超时(秒，可以有小数)转为毫秒
+     *
+     * @param seconds 超时秒数，为空时不开启空闲模式
+     * @return 毫秒数，0表示不开启
+     */
+    static int timeoutMillis(Number seconds) {
+        return seconds != null ? (int) Math.round(seconds.doubleValue() * 1000) : 0;
+    }
+
+    boolean isIdle() {
+        return mIdle;
+    }
+
+    /**
+     * 非空闲状态下每识别一帧调用一次
+     *
+     * @param decoded 是否识别成功
+     * @param now     当前时间(毫秒)
+     */
+    void onDecodedFrame(boolean decoded, long now) {
+        account(now);
+        if (decoded) {
+            mLastActivity = now;
+        } else if (now - mLastActivity >= mIdleTimeoutMillis) {
+            mIdle = true;
+            mHasReference = false;
+            mMetrics.idleEntries.incrementAndGet();
+            mActuator.setIdle(true);
+        }
+    }
+
+    /**
+     * 空闲状态下每收到一帧调用一次，画面变化时恢复全速识别
+     *
+     * @param yBuffer    Y平面
+     * @param rowStride  Y平面行跨度
+     * @param width      图像宽度
+     * @param height     图像高度
+     * @param now        当前时间(毫秒)
+     * @return 画面是否变化
+     */
+    boolean onIdleFrame(ByteBuffer yBuffer, int rowStride, int width, int height, long now) {
+        account(now);
+        sample(yBuffer, rowStride, width, height, mCurrent);
+        boolean changed = mHasReference && sceneChanged(mReference, mCurrent);
+        // 与上一帧比较，缓慢的光线变化不会唤醒
+        int[] previous = mReference;
+        mReference = mCurrent;
+        mCurrent = previous;
+        mHasReference = true;
+        if (changed) {
+            wake(now);
+        }
+        return changed;
+    }
+
+    /**
+     * 恢复到非空闲状态并重新计时，开始预览时调用。停止预览期间的时长不计入统计
+     */
+    void reset(long now) {
+        mLastAccounted = now;
+        if (mIdle) {
+            wake(now);
+        }
+        mLastActivity = now;
+    }
+
+    private void wake(long now) {
+        mIdle = false;
+        mLastActivity = now;
+        mMetrics.idleExits.incrementAndGet();
+        mActuator.setIdle(false);
+    }
+
+    private void account(long now) {
+        long elapsed = now - mLastAccounted;
+        mLastAccounted = now;
+        if (elapsed <= 0) {
+            return;
+        }
+        if (mIdle) {
+            mMetrics.idleMillis.addAndGet(elapsed);
+        } else {
+            mMetrics.activeMillis.addAndGet(elapsed);
+        }
+    }
+
+    private static void sample(ByteBuffer yBuffer, int rowStride, int width, int height, int[] out) {
+        int cellWidth = width / GRID_COLUMNS;
+        int cellHeight = height / GRID_ROWS;
+        int stepX = Math.max(1, cellWidth / SAMPLES_PER_CELL);
+        int stepY = Math.max(1, cellHeight / SAMPLES_PER_CELL);
+        int samples = SAMPLES_PER_CELL * SAMPLES_PER_CELL;
+        for (int row = 0; row < GRID_ROWS; row++) {
+            for (int col = 0; col < GRID_COLUMNS; col++) {
+                int sum = 0;
+                for (int sy = 0; sy < SAMPLES_PER_CELL; sy++) {
+                    int offset = (row * cellHeight + sy * stepY) * rowStride + col * cellWidth;
+                    for (int sx = 0; sx < SAMPLES_PER_CELL; sx++) {
+                        sum += yBuffer.get(offset + sx * stepX) & 0xFF;
+                    }
+                }
+                out[row * GRID_COLUMNS + col] = sum / samples;
+            }
+        }
+    }
+
+    private static boolean sceneChanged(int[] reference, int[] current) {
+        int threshold = (int) (reference.length * SCENE_CHANGE_RATIO);
+        int changedCells = 0;
+        for (int i = 0; i < reference.length; i++) {
+            if (Math.abs(reference[i] - current[i]) > CELL_CHANGE_THRESHOLD && ++changedCells > threshold) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
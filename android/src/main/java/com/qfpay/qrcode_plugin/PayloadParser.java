@@ -0,0 +1,30 @@
+package com.qfpay.qrcode_plugin;
+
+import com.google.zxing.BarcodeFormat;
+
+import java.util.Map;
+
+/**
+ * @Description: 识别内容解析器，将原始字符串解析为结构化数据，在识别线程中执行。
+ * 实现类需要无状态，可在多个相机间共享
+ * @CreateDate: 2026-10-18 14:05
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin
+ * @ClassName: PayloadParser
+ */
+interface PayloadParser {
+
+    /**
+     * 解析器名称，与Dart层PayloadType对应
+     */
+    String name();
+
+    /**
+     * 解析识别内容
+     *
+     * @param content 识别出的原始内容
+     * @param format  条码格式
+     * @return 结构化数据，内容不符合该解析器格式时返回null
+     */
+    Map<String, Object> parse(String content, BarcodeFormat format);
+}
@@ -0,0 +1,64 @@
+package com.qfpay.qrcode_plugin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Description: 识别内容解析器注册表，按Dart层传入的名称创建启用的解析器列表
+ * @CreateDate: 2026-10-18 15:20
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin
+ * @ClassName: PayloadParsers
+ */
+final class PayloadParsers {
+    private static final Map<String, PayloadParser> REGISTERED = new LinkedHashMap<>();
+
+    static {
+        register(new Gs1PayloadParser());
+        register(new EmvcoPayloadParser());
+        register(new UriPayloadParser());
+    }
+
+    private PayloadParsers() {
+    }
+
+    private static void register(PayloadParser parser) {
+        REGISTERED.put(parser.name(), parser);
+    }
+
+    /**
+     * 按名称顺序返回解析器，识别结果使用第一个能解析的解析器
+     *
+     * @param names 解析器名称，为空时不启用任何解析器
+     * @return 解析器列表
+     * @throws IllegalArgumentException 名称不存在
+     */
+    static List<PayloadParser> forNames(List<String> names) {
+        if (names == null || names.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<PayloadParser> parsers = new ArrayList<>(names.size());
+        for (String name : names) {
+            PayloadParser parser = REGISTERED.get(name);
+            if (parser == null) {
+                throw new IllegalArgumentException("Unsupported payload parser: " + name);
+            }
+            if (!parsers.contains(parser)) {
+                parsers.add(parser);
+            }
+        }
+        return Collections.unmodifiableList(parsers);
+    }
+
+    static boolean contains(List<PayloadParser> parsers, String name) {
+        for (PayloadParser parser : parsers) {
+            if (parser.name().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,82 @@
+package com.qfpay.qrcode_plugin;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.view.Surface;
+
+/**
+ * @Description: 单路输出模式下的预览绘制，将YUV帧转换后通过Canvas绘制到Flutter纹理。
+ * 帧按{@link PreviewTransform}裁剪、缩小并旋转，纹理缓冲区使用缩小后的尺寸，由Flutter负责放大显示。
+ * 像素数组和Bitmap在创建时分配并复用，只能在相机控制线程中使用
+ * @CreateDate: 2026-10-18 20:55
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin
+ * @ClassName: PreviewRenderer
+ */
+class PreviewRenderer {
+    private final Surface mSurface;
+    private final PreviewTransform mTransform;
+    private final int mWidth;
+    private final int mHeight;
+    private final int[] mPixels;
+    private final Bitmap mBitmap;
+    private final Matrix mMatrix = new Matrix();
+    // 帧尺寸不变时复用裁剪区域
+    private final int[] mCrop = new int[4];
+    private int mFrameWidth;
+    private int mFrameHeight;
+
+    /**
+     * @param surface   Flutter纹理的Surface，缓冲区尺寸需设置为{@link PreviewTransform#getBufferWidth()}和
+     *                  {@link PreviewTransform#getBufferHeight()}
+     * @param transform 预览尺寸和方向
+     */
+    PreviewRenderer(Surface surface, PreviewTransform transform) {
+        this.mSurface = surface;
+        this.mTransform = transform;
+        this.mWidth = transform.getBitmapWidth();
+        this.mHeight = transform.getBitmapHeight();
+        this.mPixels = new int[mWidth * mHeight];
+        this.mBitmap = Bitmap.createBitmap(mWidth, mHeight, Bitmap.Config.ARGB_8888);
+        float[] values = new float[9];
+        transform.getMatrixValues(values);
+        mMatrix.setValues(values);
+    }
+
+    void render(YuvFrame frame) {
+        if (!mSurface.isValid()) {
+            return;
+        }
+        if (frame.getWidth() != mFrameWidth || frame.getHeight() != mFrameHeight) {
+            mFrameWidth = frame.getWidth();
+            mFrameHeight = frame.getHeight();
+            mTransform.computeCrop(mFrameWidth, mFrameHeight, mCrop);
+        }
+        YuvConverter.toArgb(frame, mCrop[0], mCrop[1], mCrop[2], mCrop[3], mPixels, mWidth, mHeight);
+        mBitmap.setPixels(mPixels, 0, mWidth, 0, 0, mWidth, mHeight);
+        Canvas canvas;
+        try {
+            canvas = mSurface.lockCanvas(null);
+        } catch (Surface.OutOfResourcesException | IllegalArgumentException e) {
+            return;
+        }
+        if (canvas == null) {
+            return;
+        }
+        try {
+            // 旋转后正好铺满缓冲区，不需要缩放和过滤
+            canvas.drawBitmap(mBitmap, mMatrix, null);
+        } finally {
+            mSurface.unlockCanvasAndPost(canvas);
+        }
+    }
+
+    /**
+     * 释放Bitmap和Surface，Surface由绘制器持有，之后不能再使用
+     */
+    void release() {
+        mBitmap.recycle();
+        mSurface.release();
+    }
+}
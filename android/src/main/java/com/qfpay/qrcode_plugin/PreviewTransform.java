@@ -0,0 +1,147 @@
+package com.qfpay.qrcode_plugin;
+
+/**
+ * @Description: 单路输出模式下预览的尺寸和方向。双路输出时SurfaceTexture会按传感器方向旋转画面，
+ * 前置摄像头还会水平镜像，通过Canvas绘制时需要自己处理。帧按预览宽高比居中裁剪后缩小到Bitmap，
+ * 再旋转绘制到同样缩小的纹理缓冲区，由Flutter在GPU上放大显示，宽高比与预览尺寸一致
+ * @CreateDate: 2026-10-18 23:40
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin
+ * @ClassName: PreviewTransform
+ */
+final class PreviewTransform {
+    // CPU绘制的最大边长(像素)，超过时等比缩小
+    static final int MAX_RENDER_SIDE = 720;
+
+    private final int mRotation;
+    private final boolean mMirror;
+    private final int mBitmapWidth;
+    private final int mBitmapHeight;
+
+    /**
+     * @param previewWidth      预览宽度(传感器方向)
+     * @param previewHeight     预览高度(传感器方向)
+     * @param sensorOrientation 传感器方向，顺时针旋转该角度后为设备自然方向
+     * @param mirror            是否水平镜像，前置摄像头为true
+     */
+    PreviewTransform(int previewWidth, int previewHeight, int sensorOrientation, boolean mirror) {
+        this.mRotation = normalizeRotation(sensorOrientation);
+        this.mMirror = mirror;
+        int longSide = Math.max(previewWidth, previewHeight);
+        if (longSide > MAX_RENDER_SIDE) {
+            this.mBitmapWidth = Math.max(1, Math.round((float) previewWidth * MAX_RENDER_SIDE / longSide));
+            this.mBitmapHeight = Math.max(1, Math.round((float) previewHeight * MAX_RENDER_SIDE / longSide));
+        } else {
+            this.mBitmapWidth = previewWidth;
+            this.mBitmapHeight = previewHeight;
+        }
+    }
+
+    private static int normalizeRotation(int degrees) {
+        int rotation = ((degrees % 360) + 360) % 360;
+        return (rotation + 45) / 90 * 90 % 360;
+    }
+
+    int getRotation() {
+        return mRotation;
+    }
+
+    boolean isMirror() {
+        return mMirror;
+    }
+
+    /**
+     * 转换后的Bitmap尺寸，与帧方向相同
+     */
+    int getBitmapWidth() {
+        return mBitmapWidth;
+    }
+
+    int getBitmapHeight() {
+        return mBitmapHeight;
+    }
+
+    /**
+     * 纹理缓冲区尺寸，即旋转后的Bitmap尺寸
+     */
+    int getBufferWidth() {
+        return isRotated() ? mBitmapHeight : mBitmapWidth;
+    }
+
+    int getBufferHeight() {
+        return isRotated() ? mBitmapWidth : mBitmapHeight;
+    }
+
+    private boolean isRotated() {
+        return mRotation == 90 || mRotation == 270;
+    }
+
+    /**
+     * 按Bitmap的宽高比居中裁剪帧，避免帧和预览宽高比不同时画面被拉伸
+     *
+     * @param frameWidth  帧宽度
+     * @param frameHeight 帧高度
+     * @param crop        输出left、top、width、height
+     */
+    void computeCrop(int frameWidth, int frameHeight, int[] crop) {
+        int width = frameWidth;
+        int height = frameHeight;
+        // 比较frameWidth / frameHeight与mBitmapWidth / mBitmapHeight
+        long frameRatio = (long) frameWidth * mBitmapHeight;
+        long bitmapRatio = (long) mBitmapWidth * frameHeight;
+        if (frameRatio > bitmapRatio) {
+            width = Math.max(1, (int) (bitmapRatio / mBitmapHeight));
+        } else if (frameRatio < bitmapRatio) {
+            height = Math.max(1, (int) (frameRatio / mBitmapWidth));
+        }
+        crop[0] = (frameWidth - width) / 2;
+        crop[1] = (frameHeight - height) / 2;
+        crop[2] = width;
+        crop[3] = height;
+    }
+
+    /**
+     * Bitmap坐标到纹理缓冲区坐标的变换，先顺时针旋转，需要时再水平镜像。
+     * 顺序与android.graphics.Matrix#setValues一致
+     *
+     * @param values 长度为9
+     */
+    void getMatrixValues(float[] values) {
+        float w = mBitmapWidth;
+        float h = mBitmapHeight;
+        switch (mRotation) {
+            case 90:
+                setAffine(values, 0, -1, h, 1, 0, 0);
+                break;
+            case 180:
+                setAffine(values, -1, 0, w, 0, -1, h);
+                break;
+            case 270:
+                setAffine(values, 0, 1, 0, -1, 0, w);
+                break;
+            default:
+                setAffine(values, 1, 0, 0, 0, 1, 0);
+                break;
+        }
+        if (mMirror) {
+            // x' = bufferWidth - x'
+            values[0] = -values[0];
+            values[1] = -values[1];
+            values[2] = getBufferWidth() - values[2];
+        }
+    }
+
+    // x' = scaleX * x + skewX * y + transX, y' = skewY * x + scaleY * y + transY
+    private static void setAffine(float[] values, float scaleX, float skewX, float transX,
+                                  float skewY, float scaleY, float transY) {
+        values[0] = scaleX;
+        values[1] = skewX;
+        values[2] = transX;
+        values[3] = skewY;
+        values[4] = scaleY;
+        values[5] = transY;
+        values[6] = 0;
+        values[7] = 0;
+        values[8] = 1;
+    }
+}
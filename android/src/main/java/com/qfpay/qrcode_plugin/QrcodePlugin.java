@@ -2,10 +2,26 @@ package com.qfpay.qrcode_plugin;
 
 import android.hardware.camera2.CameraAccessException;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 
 import androidx.annotation.NonNull;
 
+import com.google.zxing.BarcodeFormat;
+import com.qfpay.qrcode_plugin.engine.DecodeConfig;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
 
 import io.flutter.plugin.common.EventChannel;
 import io.flutter.plugin.common.MethodCall;
@@ -31,11 +47,27 @@ public class QrcodePlugin implements MethodCallHandler {
     private final static String METHOD_STOP_PREVIEW = "stopPreview";
     /// 释放相机
     private final static String METHOD_DISPOSE = "dispose";
-    /// 扫码成功
-    private final static  String METHOD_SCAN_SUCCESS = "scanSuccess";
+    /// 获取扫码统计指标
+    private final static String METHOD_METRICS = "metrics";
+    /// 补光灯开关
+    private final static String METHOD_SET_TORCH = "setTorch";
+    /// 设置数码变焦
+    private final static String METHOD_SET_ZOOM = "setZoom";
+    /// 设置曝光补偿
+    private final static String METHOD_SET_EXPOSURE = "setExposure";
+    /// 扫码辅助(自动补光、放大)开关
+    private final static String METHOD_SET_SCAN_ASSIST = "setScanAssist";
+    /// 耗时追踪开关
+    private final static String METHOD_SET_TRACING = "setTracing";
+    /// 导出耗时追踪记录
+    private final static String METHOD_DUMP_TRACE = "dumpTrace";
 
-    private Camera mCamera;
+    // 已初始化的相机，以纹理id为key，按初始化顺序排列
+    private final LinkedHashMap<Long, Camera> mCameras = new LinkedHashMap<>();
     private CameraPermissions mCameraPer = new CameraPermissions();
+    private final ScanMetrics mMetrics = new ScanMetrics();
+    private final DecodeResultCache mResultCache = new DecodeResultCache(DecodeResultCache.DEFAULT_CAPACITY, mMetrics);
+    private final ScanTracer mTracer = new ScanTracer(ScanTracer.DEFAULT_CAPACITY);
     private static MethodChannel mChannel;
 
     /**
@@ -47,8 +79,11 @@ public class QrcodePlugin implements MethodCallHandler {
             return;
         }
 
+        long start = System.nanoTime();
         mChannel = new MethodChannel(registrar.messenger(), "com.qfpay.flutter.plugin/qrcode_plugin");
-        mChannel.setMethodCallHandler(new QrcodePlugin(registrar));
+        QrcodePlugin plugin = new QrcodePlugin(registrar);
+        mChannel.setMethodCallHandler(plugin);
+        plugin.mMetrics.pluginRegisterMicros.set((System.nanoTime() - start) / 1000);
     }
 
     private QrcodePlugin(Registrar registrar) {
@@ -66,9 +101,8 @@ public class QrcodePlugin implements MethodCallHandler {
                 availableCameras(call, result);
                 break;
             case METHOD_INITIALIZE:
-                if (mCamera != null) {
-                    mCamera.close();
-                }
+                // 同一个相机只能打开一次，先释放之前用该相机初始化的实例
+                disposeCamerasNamed((String) call.argument("cameraName"));
                 boolean enableAudio = false;
                 Object arg = call.argument("enableAudio");
                 if (arg != null) {
@@ -78,10 +112,12 @@ public class QrcodePlugin implements MethodCallHandler {
                     @Override
                     public void onResult(String errorCode, String errorDescription) {
                         if (errorCode == null) {
+                            // 获得权限后才开始计时，不包含用户处理权限弹窗的时间
+                            Result timedResult = createTimedResult(result);
                             try {
-                                initializeCamera(call, result);
+                                initializeCamera(call, timedResult);
                             } catch (CameraAccessException e) {
-                                handleException(e, result);
+                                handleException(e, timedResult);
                             }
                         } else {
                             result.error(errorCode, errorDescription, null);
@@ -91,15 +127,31 @@ public class QrcodePlugin implements MethodCallHandler {
 
                 break;
             case METHOD_START_PREVIEW:
-                startPreview(result);
+                startPreview(call, result);
                 break;
 
             case METHOD_STOP_PREVIEW:
-                stopPreview(result);
+                stopPreview(call, result);
                 break;
             case METHOD_DISPOSE:
                 dispose(call, result);
                 break;
+            case METHOD_METRICS:
+                metrics(call, result);
+                break;
+            case METHOD_SET_TRACING:
+                mTracer.setEnabled(Boolean.TRUE.equals(call.argument("enable")));
+                result.success(null);
+                break;
+            case METHOD_DUMP_TRACE:
+                dumpTrace(call, result);
+                break;
+            case METHOD_SET_TORCH:
+            case METHOD_SET_ZOOM:
+            case METHOD_SET_EXPOSURE:
+            case METHOD_SET_SCAN_ASSIST:
+                cameraControl(call, result);
+                break;
             default:
                 result.notImplemented();
                 break;
@@ -107,16 +159,53 @@ public class QrcodePlugin implements MethodCallHandler {
     }
 
     // 开始预览
-    private void startPreview(Result result) {
-        if (mCamera != null) {
-            mCamera.startPreview(result);
+    private void startPreview(MethodCall call, Result result) {
+        Camera camera = findCamera(call, result);
+        if (camera != null) {
+            camera.startPreview(result);
         }
     }
 
     //停止预览
-    private void stopPreview(Result result) {
-        if (mCamera != null) {
-            mCamera.stopPreview(result);
+    private void stopPreview(MethodCall call, Result result) {
+        Camera camera = findCamera(call, result);
+        if (camera != null) {
+            camera.stopPreview(result);
+        }
+    }
+
+    /**
+     * 按参数textureId查找相机，未传textureId时使用最后初始化的相机。
+     * textureId不对应任何相机时返回InvalidArgument，没有已初始化的相机时返回CameraAccess
+     */
+    private Camera findCamera(MethodCall call, Result result) {
+        Number textureId = call.argument("textureId");
+        if (textureId != null) {
+            Camera camera = mCameras.get(textureId.longValue());
+            if (camera == null) {
+                result.error("InvalidArgument", "Unknown textureId: " + textureId, null);
+            }
+            return camera;
+        }
+        Camera camera = null;
+        for (Camera c : mCameras.values()) {
+            camera = c;
+        }
+        if (camera == null) {
+            result.error("CameraAccess", "The camera has been closed, please initialize first.", null);
+        }
+        return camera;
+    }
+
+    private void disposeCamerasNamed(String cameraName) {
+        Iterator<Camera> iterator = mCameras.values().iterator();
+        while (iterator.hasNext()) {
+            Camera camera = iterator.next();
+            if (camera.getCameraName().equals(cameraName)) {
+                // 释放纹理并归还共享线程，避免重复初始化时泄漏
+                camera.dispose();
+                iterator.remove();
+            }
         }
     }
 
@@ -140,30 +229,176 @@ public class QrcodePlugin implements MethodCallHandler {
         String cameraName = call.argument("cameraName");
         String resolutionPreset = call.argument("resolutionPreset");
         ArrayList<String> codeFormats = call.argument("codeFormats");
+        ArrayList<String> payloadTypes = call.argument("payloadTypes");
+        String streamMode = call.argument("streamMode");
+        // 多少秒没有识别出码后进入空闲状态，未传或为0时不启用
+        Number idleTimeout = call.argument("idleTimeout");
+        int idleTimeoutMillis = IdleController.timeoutMillis(idleTimeout);
+        // 识别区域[left, top, width, height]，按占画面宽高的比例设置，未传时为整个画面
+        List<Number> scanRegion = call.argument("scanRegion");
+        DecodeConfig decodeConfig;
+        List<PayloadParser> payloadParsers;
+        try {
+            // 打开相机前校验参数
+            Set<BarcodeFormat> decodeFormats = BarcodeFormats.parse(codeFormats);
+            payloadParsers = PayloadParsers.forNames(payloadTypes);
+            DecodeConfig.Builder builder = new DecodeConfig.Builder()
+                    .setFormats(decodeFormats)
+                    // 保留FNC1分隔符，供GS1解析器切分元素
+                    .setAssumeGs1(PayloadParsers.contains(payloadParsers, Gs1PayloadParser.NAME));
+            if (scanRegion != null) {
+                if (scanRegion.size() != 4) {
+                    throw new IllegalArgumentException("scanRegion must be [left, top, width, height]");
+                }
+                builder.setRegion(scanRegion.get(0).floatValue(), scanRegion.get(1).floatValue(),
+                        scanRegion.get(2).floatValue(), scanRegion.get(3).floatValue());
+            }
+            decodeConfig = builder.build();
+        } catch (IllegalArgumentException e) {
+            result.error("InvalidArgument", e.getMessage(), null);
+            return;
+        }
+        Integer cameraThreadPriority = call.argument("cameraThreadPriority");
+        Integer decodeThreadPriority = call.argument("decodeThreadPriority");
+        if (cameraThreadPriority != null || decodeThreadPriority != null) {
+            CameraExecutors.getInstance().setPriorities(
+                    cameraThreadPriority != null ? cameraThreadPriority : CameraExecutors.DEFAULT_CONTROL_PRIORITY,
+                    decodeThreadPriority != null ? decodeThreadPriority : CameraExecutors.DEFAULT_DECODE_PRIORITY);
+        }
 
 //        Boolean enableAudio = call.argument("enableAudio");
 //        if (enableAudio == null) {
 //            enableAudio = Boolean.FALSE;
 //        }
-        mCamera = new Camera(mRegistrar.activity(), mRegistrar.view(), cameraName, resolutionPreset, codeFormats, new BarcodeScanListener() {
-            @Override
-            public void onResult(String content) {
-                mChannel.invokeMethod(METHOD_SCAN_SUCCESS, content);
-            }
-        });
-        EventChannel cameraEventChannel = new EventChannel(mRegistrar.messenger(), "com.qfpay.flutter.plugin/camera_event_" + mCamera.getFlutterTexture().id());
-        mCamera.setupCameraEventChannel(cameraEventChannel);
-        mCamera.open(result);
+        Camera camera = new Camera(mRegistrar.activity(), mRegistrar.view(), cameraName, resolutionPreset, decodeConfig, payloadParsers, streamMode, idleTimeoutMillis, mResultCache, mMetrics, mTracer);
+        long textureId = camera.getFlutterTexture().id();
+        EventChannel cameraEventChannel = new EventChannel(mRegistrar.messenger(), "com.qfpay.flutter.plugin/camera_event_" + textureId);
+        camera.setupCameraEventChannel(cameraEventChannel);
+        try {
+            camera.open(result);
+        } catch (CameraAccessException | RuntimeException e) {
+            // 打开失败时释放纹理和共享线程，不加入相机列表
+            cameraEventChannel.setStreamHandler(null);
+            camera.dispose();
+            throw e;
+        }
+        // 相机回调在主线程执行，此时还不会收到识别结果
+        mCameras.put(textureId, camera);
     }
 
-    // 释放相机
+    // 释放相机，未传textureId时释放全部相机
     private void dispose(MethodCall call, final Result result) {
-        if (mCamera != null) {
-            mCamera.dispose();
+        Number textureId = call.argument("textureId");
+        if (textureId == null) {
+            for (Camera camera : mCameras.values()) {
+                camera.dispose();
+            }
+            mCameras.clear();
+            mResultCache.clear();
+        } else {
+            Camera camera = mCameras.remove(textureId.longValue());
+            if (camera != null) {
+                camera.dispose();
+            }
         }
         result.success(null);
     }
 
+    // 补光灯、变焦、曝光和扫码辅助设置
+    private void cameraControl(MethodCall call, final Result result) {
+        Camera camera = findCamera(call, result);
+        if (camera == null) {
+            return;
+        }
+        switch (call.method) {
+            case METHOD_SET_TORCH:
+                camera.setTorch(Boolean.TRUE.equals(call.argument("enable")), result);
+                break;
+            case METHOD_SET_ZOOM:
+                Number zoom = call.argument("zoom");
+                camera.setZoom(zoom != null ? zoom.doubleValue() : 1d, result);
+                break;
+            case METHOD_SET_EXPOSURE:
+                Number compensation = call.argument("compensation");
+                camera.setExposure(compensation != null ? compensation.intValue() : 0, result);
+                break;
+            case METHOD_SET_SCAN_ASSIST:
+                camera.setScanAssist(Boolean.TRUE.equals(call.argument("enable")), result);
+                break;
+        }
+    }
+
+    // 获取扫码统计指标，参数reset为true时读取后清零
+    private void metrics(MethodCall call, final Result result) {
+        HashMap<String, Object> reply = new HashMap<>(mMetrics.toMap());
+        Boolean reset = call.argument("reset");
+        if (reset != null && reset) {
+            mMetrics.reset();
+        }
+        result.success(reply);
+    }
+
+    /**
+     * 将追踪记录写入文件，返回文件路径。未传path时写入应用缓存目录
+     */
+    private void dumpTrace(MethodCall call, final Result result) {
+        String path = call.argument("path");
+        final File file = path != null ? new File(path)
+                : new File(mRegistrar.context().getCacheDir(), "qrcode_trace_" + System.currentTimeMillis() + ".json");
+        final Handler mainHandler = new Handler(Looper.getMainLooper());
+        // 写文件可能较慢，不占用主线程
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+                    try {
+                        mTracer.writeJson(writer);
+                    } finally {
+                        writer.close();
+                    }
+                    mainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            result.success(file.getAbsolutePath());
+                        }
+                    });
+                } catch (final IOException e) {
+                    mainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            result.error("TraceIO", e.getMessage(), null);
+                        }
+                    });
+                }
+            }
+        }, "QrcodeTraceDump").start();
+    }
+
+    /**
+     * 包装initialize的Result，记录从获得权限到返回的耗时
+     */
+    private Result createTimedResult(final Result result) {
+        final long start = System.nanoTime();
+        return new Result() {
+            @Override
+            public void success(Object o) {
+                mMetrics.initializeMicros.set((System.nanoTime() - start) / 1000);
+                result.success(o);
+            }
+
+            @Override
+            public void error(String s, String s1, Object o) {
+                result.error(s, s1, o);
+            }
+
+            @Override
+            public void notImplemented() {
+                result.notImplemented();
+            }
+        };
+    }
+
     /**
      * 伪造Result对象，用于插件内部调用API
      * @return Result
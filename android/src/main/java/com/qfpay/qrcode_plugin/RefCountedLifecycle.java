@@ -0,0 +1,99 @@
+package com.qfpay.qrcode_plugin;
+
+/**
+ * @Description: 共享资源的引用计数生命周期。第一次获取时启动资源，最后一次释放后延迟一段时间再停止，
+ * 延迟期间重新获取时取消停止并继续使用原来的资源。不依赖Android，延迟任务由{@link Scheduler}执行
+ * @CreateDate: 2026-10-18 22:52
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin
+ * @ClassName: RefCountedLifecycle
+ */
+class RefCountedLifecycle {
+
+    /**
+     * 被管理的资源，回调在持有本对象锁时执行
+     */
+    interface Resource {
+        void start();
+
+        void stop();
+    }
+
+    /**
+     * 执行延迟停止任务
+     */
+    interface Scheduler {
+        void postDelayed(Runnable task, long delayMillis);
+
+        void cancel(Runnable task);
+    }
+
+    private final Resource mResource;
+    private final Scheduler mScheduler;
+    private final long mIdleTimeoutMillis;
+    private final Runnable mStopTask = new Runnable() {
+        @Override
+        public void run() {
+            stopIfUnused();
+        }
+    };
+
+    private int mRefCount;
+    private boolean mStarted;
+
+    /**
+     * @param resource          被管理的资源
+     * @param scheduler         执行延迟停止
+     * @param idleTimeoutMillis 最后一次释放后资源保留的时长
+     */
+    RefCountedLifecycle(Resource resource, Scheduler scheduler, long idleTimeoutMillis) {
+        this.mResource = resource;
+        this.mScheduler = scheduler;
+        this.mIdleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * 增加引用，资源未启动时启动资源
+     */
+    synchronized void acquire() {
+        mRefCount++;
+        mScheduler.cancel(mStopTask);
+        if (!mStarted) {
+            mResource.start();
+            mStarted = true;
+        }
+    }
+
+    /**
+     * 减少引用，与{@link #acquire()}一一对应。引用数为0时延迟停止资源
+     */
+    synchronized void release() {
+        if (mRefCount == 0) {
+            return;
+        }
+        mRefCount--;
+        if (mRefCount == 0) {
+            mScheduler.postDelayed(mStopTask, mIdleTimeoutMillis);
+        }
+    }
+
+    /**
+     * 没有引用时立即停止资源，仍有引用时不做处理
+     */
+    synchronized void stopIfUnused() {
+        mScheduler.cancel(mStopTask);
+        if (mRefCount > 0 || !mStarted) {
+            return;
+        }
+        mResource.stop();
+        mStarted = false;
+    }
+
+    synchronized int getRefCount() {
+        return mRefCount;
+    }
+
+    synchronized boolean isStarted() {
+        return mStarted;
+    }
+}
@@ -0,0 +1,99 @@
+package com.qfpay.qrcode_plugin;
+
+/**
+ * @Description: 扫码辅助控制器，根据识别线程统计的画面亮度和码尺寸，
+ * 在连续识别失败时自动打开补光灯或放大画面，识别成功后恢复
+ * @CreateDate: 2026-10-18 17:05
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin
+ * @ClassName: ScanAssistController
+ */
+class ScanAssistController {
+    // 连续失败多少帧后开始调整
+    static final int FAILURE_THRESHOLD = 15;
+    // 平均亮度低于此值(0~255)认为画面过暗
+    static final int DARK_BRIGHTNESS = 60;
+    // 检测到的码宽度占画面宽度比例低于此值认为码过小
+    static final float SMALL_CODE_RATIO = 0.2f;
+    static final float ZOOM_STEP = 1.5f;
+    static final float MAX_ASSIST_ZOOM = 3f;
+    // 亮度平滑系数
+    private static final float BRIGHTNESS_SMOOTHING = 0.3f;
+
+    interface Actuator {
+        void setAssistTorch(boolean enable);
+
+        void setAssistZoom(float zoom);
+    }
+
+    private final Actuator mActuator;
+    private final boolean mTorchAvailable;
+    private final float mMaxZoom;
+
+    private float mBrightness = -1;
+    private int mFailures;
+    private boolean mTorchOn;
+    private float mZoom = 1f;
+
+    /**
+     * @param actuator       执行调整的相机
+     * @param torchAvailable 是否有补光灯
+     * @param maxZoom        相机支持的最大数码变焦倍数
+     */
+    ScanAssistController(Actuator actuator, boolean torchAvailable, float maxZoom) {
+        this.mActuator = actuator;
+        this.mTorchAvailable = torchAvailable;
+        this.mMaxZoom = Math.min(maxZoom, MAX_ASSIST_ZOOM);
+    }
+
+    /**
+     * 每识别一帧调用一次，在识别线程中执行
+     *
+     * @param brightness 画面平均亮度(0~255)
+     * @param decoded    是否识别成功
+     * @param codeRatio  检测到的码宽度占画面宽度的比例，未检测到时为0
+     */
+    void onFrame(int brightness, boolean decoded, float codeRatio) {
+        mBrightness = mBrightness < 0 ? brightness
+                : mBrightness + BRIGHTNESS_SMOOTHING * (brightness - mBrightness);
+        if (decoded) {
+            // 识别成功后相机会自动停止预览，这里是本次预览的最后一帧；重新开始预览时相机会再调用reset
+            reset();
+            return;
+        }
+        if (++mFailures < FAILURE_THRESHOLD) {
+            return;
+        }
+        mFailures = 0;
+        if (mTorchAvailable && !mTorchOn && mBrightness < DARK_BRIGHTNESS) {
+            mTorchOn = true;
+            mActuator.setAssistTorch(true);
+        } else if (codeRatio > 0 && codeRatio < SMALL_CODE_RATIO && mZoom < mMaxZoom) {
+            mZoom = Math.min(mZoom * ZOOM_STEP, mMaxZoom);
+            mActuator.setAssistZoom(mZoom);
+        }
+    }
+
+    /**
+     * 恢复到未调整的状态
+     */
+    void reset() {
+        mFailures = 0;
+        if (mTorchOn) {
+            mTorchOn = false;
+            mActuator.setAssistTorch(false);
+        }
+        if (mZoom != 1f) {
+            mZoom = 1f;
+            mActuator.setAssistZoom(1f);
+        }
+    }
+
+    boolean isTorchOn() {
+        return mTorchOn;
+    }
+
+    float getZoom() {
+        return mZoom;
+    }
+}
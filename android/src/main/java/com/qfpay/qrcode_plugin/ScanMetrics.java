@@ -0,0 +1,72 @@
+package com.qfpay.qrcode_plugin;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Description: 扫码统计指标，通过metrics方法返回给Dart层
+ * @CreateDate: 2026-10-18 10:12
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin
+ * @ClassName: ScanMetrics
+ */
+class ScanMetrics {
+    // 参与识别的帧数
+    final AtomicLong framesDecoded = new AtomicLong();
+    // 识别线程忙时丢弃的帧数
+    final AtomicLong framesDropped = new AtomicLong();
+    // 识别成功次数
+    final AtomicLong decodeSuccess = new AtomicLong();
+    // 识别结果缓存命中/未命中/淘汰次数
+    final AtomicLong cacheHits = new AtomicLong();
+    final AtomicLong cacheMisses = new AtomicLong();
+    final AtomicLong cacheEvictions = new AtomicLong();
+    // 扫码辅助自动打开补光灯/放大画面次数
+    final AtomicLong assistTorchActivations = new AtomicLong();
+    final AtomicLong assistZoomActivations = new AtomicLong();
+    // 进入/退出空闲状态次数，以及全速识别和空闲状态的累计时长(毫秒)
+    final AtomicLong idleEntries = new AtomicLong();
+    final AtomicLong idleExits = new AtomicLong();
+    final AtomicLong activeMillis = new AtomicLong();
+    final AtomicLong idleMillis = new AtomicLong();
+    // 启动耗时(微秒)：插件注册、initialize获得权限到返回、创建识别器
+    final AtomicLong pluginRegisterMicros = new AtomicLong();
+    final AtomicLong initializeMicros = new AtomicLong();
+    final AtomicLong readerBuildMicros = new AtomicLong();
+
+    void reset() {
+        framesDecoded.set(0);
+        framesDropped.set(0);
+        decodeSuccess.set(0);
+        cacheHits.set(0);
+        cacheMisses.set(0);
+        cacheEvictions.set(0);
+        assistTorchActivations.set(0);
+        assistZoomActivations.set(0);
+        idleEntries.set(0);
+        idleExits.set(0);
+        activeMillis.set(0);
+        idleMillis.set(0);
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("framesDecoded", framesDecoded.get());
+        map.put("framesDropped", framesDropped.get());
+        map.put("decodeSuccess", decodeSuccess.get());
+        map.put("cacheHits", cacheHits.get());
+        map.put("cacheMisses", cacheMisses.get());
+        map.put("cacheEvictions", cacheEvictions.get());
+        map.put("assistTorchActivations", assistTorchActivations.get());
+        map.put("assistZoomActivations", assistZoomActivations.get());
+        map.put("idleEntries", idleEntries.get());
+        map.put("idleExits", idleExits.get());
+        map.put("activeMillis", activeMillis.get());
+        map.put("idleMillis", idleMillis.get());
+        map.put("pluginRegisterMicros", pluginRegisterMicros.get());
+        map.put("initializeMicros", initializeMicros.get());
+        map.put("readerBuildMicros", readerBuildMicros.get());
+        return map;
+    }
+}
@@ -0,0 +1,96 @@
+package com.qfpay.qrcode_plugin;
+
+import com.google.zxing.Result;
+import com.google.zxing.client.result.ParsedResult;
+import com.google.zxing.client.result.ResultParser;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Description: 识别结果，包含原始内容和解析后的结构化数据，创建后不可修改
+ * @CreateDate: 2026-10-18 10:20
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin
+ * @ClassName: ScanResult
+ */
+final class ScanResult {
+    private final String content;
+    private final String format;
+    private final String type;
+    private final Map<String, Object> fields;
+    private final String payloadType;
+    private final Map<String, Object> payload;
+
+    private ScanResult(String content, String format, String type, Map<String, Object> fields,
+                       String payloadType, Map<String, Object> payload) {
+        this.content = content;
+        this.format = format;
+        this.type = type;
+        this.fields = Collections.unmodifiableMap(fields);
+        this.payloadType = payloadType;
+        this.payload = payload == null ? null : Collections.unmodifiableMap(payload);
+    }
+
+    /**
+     * 使用ZXing的ResultParser解析识别结果，并依次尝试启用的内容解析器
+     *
+     * @param rawResult 解码结果
+     * @param parsers   启用的内容解析器
+     * @return 结构化的识别结果
+     */
+    static ScanResult parse(Result rawResult, List<PayloadParser> parsers) {
+        ParsedResult parsed = ResultParser.parseResult(rawResult);
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("displayResult", parsed.getDisplayResult());
+        String content = rawResult.getText();
+        for (PayloadParser parser : parsers) {
+            Map<String, Object> payload = parser.parse(content, rawResult.getBarcodeFormat());
+            if (payload != null) {
+                return new ScanResult(content, rawResult.getBarcodeFormat().name(),
+                        parsed.getType().name(), fields, parser.name(), payload);
+            }
+        }
+        return new ScanResult(content, rawResult.getBarcodeFormat().name(),
+                parsed.getType().name(), fields, null, null);
+    }
+
+    String getContent() {
+        return content;
+    }
+
+    String getFormat() {
+        return format;
+    }
+
+    String getType() {
+        return type;
+    }
+
+    Map<String, Object> getFields() {
+        return fields;
+    }
+
+    String getPayloadType() {
+        return payloadType;
+    }
+
+    Map<String, Object> getPayload() {
+        return payload;
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("content", content);
+        map.put("format", format);
+        map.put("type", type);
+        map.put("fields", new HashMap<>(fields));
+        if (payload != null) {
+            map.put("payloadType", payloadType);
+            map.put("payload", new HashMap<>(payload));
+        }
+        return map;
+    }
+}
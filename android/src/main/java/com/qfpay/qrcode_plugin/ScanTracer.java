@@ -0,0 +1,225 @@
+package com.qfpay.qrcode_plugin;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @Description: 扫码耗时追踪，按帧记录各阶段的耗时，导出为Chrome trace-event格式的JSON，
+ * 可在Perfetto或chrome://tracing中打开。
+ * 记录保存在环形缓冲中，写满后覆盖最早的记录。缓冲在第一次开启时分配，从未开启时不占用内存。
+ * 未开启时{@link #begin()}只读一次volatile变量，不记录也不分配内存
+ * @CreateDate: 2026-10-18 22:19
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin
+ * @ClassName: ScanTracer
+ */
+class ScanTracer {
+    static final int DEFAULT_CAPACITY = 8192;
+
+    // 阶段定义，与SPAN_NAMES一一对应
+    // 相机回调一帧完成
+    static final int SPAN_CAPTURE_COMPLETE = 0;
+    // 取帧(包括复制Y平面)
+    static final int SPAN_ACQUIRE = 1;
+    // 创建亮度源
+    static final int SPAN_LUMINANCE = 2;
+    // 二值化
+    static final int SPAN_BINARIZE = 3;
+    // 一次识别器调用
+    static final int SPAN_READER = 4;
+    // 解析识别结果
+    static final int SPAN_PARSE = 5;
+    // 在主线程分发结果
+    static final int SPAN_DISPATCH = 6;
+    // 单路输出模式下复制帧和绘制预览
+    static final int SPAN_COPY_FRAME = 7;
+    static final int SPAN_RENDER = 8;
+    // 空闲状态下检测画面变化
+    static final int SPAN_SCENE_DETECT = 9;
+
+    private static final String[] SPAN_NAMES = {
+            "captureComplete", "acquire", "luminance", "binarize", "reader",
+            "parse", "dispatch", "copyFrame", "render", "sceneDetect"
+    };
+
+    private volatile boolean mEnabled = false;
+
+    private final int mCapacity;
+    // 环形缓冲，第一次开启时分配，之后一直复用。和下一条记录的位置、已记录的总数一起由this保护
+    private int[] mSpans;
+    private long[] mStarts;
+    private long[] mDurations;
+    private long[] mCameras;
+    private long[] mFrames;
+    private Thread[] mThreads;
+    private int mNext = 0;
+    private long mRecorded = 0;
+
+    ScanTracer(int capacity) {
+        this.mCapacity = capacity;
+    }
+
+    /**
+     * 开启时清空之前的记录，第一次开启时分配缓冲
+     */
+    void setEnabled(boolean enabled) {
+        if (enabled && !mEnabled) {
+            synchronized (this) {
+                if (mSpans == null) {
+                    mSpans = new int[mCapacity];
+                    mStarts = new long[mCapacity];
+                    mDurations = new long[mCapacity];
+                    mCameras = new long[mCapacity];
+                    mFrames = new long[mCapacity];
+                    mThreads = new Thread[mCapacity];
+                } else {
+                    Arrays.fill(mThreads, null);
+                }
+                mNext = 0;
+                mRecorded = 0;
+            }
+        }
+        mEnabled = enabled;
+    }
+
+    boolean isEnabled() {
+        return mEnabled;
+    }
+
+    /**
+     * 阶段开始
+     *
+     * @return 开始时间，未开启时返回0，传给{@link #end(int, long, long, long)}后不会记录
+     */
+    long begin() {
+        return mEnabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * 阶段结束，记录一条耗时
+     *
+     * @param span   阶段，SPAN_*常量
+     * @param start  {@link #begin()}的返回值
+     * @param camera 相机纹理id
+     * @param frame  帧时间戳，用于关联同一帧的各个阶段，未知时为0
+     */
+    void end(int span, long start, long camera, long frame) {
+        // 开始时间非0说明开启过，缓冲已分配
+        if (start == 0L) {
+            return;
+        }
+        long duration = System.nanoTime() - start;
+        Thread thread = Thread.currentThread();
+        synchronized (this) {
+            int index = mNext;
+            mSpans[index] = span;
+            mStarts[index] = start;
+            mDurations[index] = duration;
+            mCameras[index] = camera;
+            mFrames[index] = frame;
+            mThreads[index] = thread;
+            mNext = index + 1 == mCapacity ? 0 : index + 1;
+            mRecorded++;
+        }
+    }
+
+    /**
+     * 按Chrome trace-event格式写出当前缓冲中的记录，写出期间不影响继续记录
+     *
+     * @return 写出的记录条数
+     */
+    int writeJson(Writer out) throws IOException {
+        int count = 0;
+        int first = 0;
+        int[] spans = null;
+        long[] starts = null;
+        long[] durations = null;
+        long[] cameras = null;
+        long[] frames = null;
+        Thread[] threads = null;
+        synchronized (this) {
+            // 从未开启时没有记录
+            if (mSpans != null) {
+                count = (int) Math.min(mRecorded, mCapacity);
+                first = mRecorded > mCapacity ? mNext : 0;
+                spans = mSpans.clone();
+                starts = mStarts.clone();
+                durations = mDurations.clone();
+                cameras = mCameras.clone();
+                frames = mFrames.clone();
+                threads = mThreads.clone();
+            }
+        }
+
+        Map<Long, String> threadNames = new HashMap<>();
+        out.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+        boolean firstEvent = true;
+        for (int i = 0; i < count; i++) {
+            int index = (first + i) % mCapacity;
+            long tid = threads[index].getId();
+            threadNames.put(tid, threads[index].getName());
+            if (!firstEvent) {
+                out.write(',');
+            }
+            firstEvent = false;
+            out.write("\n{\"name\":\"");
+            out.write(SPAN_NAMES[spans[index]]);
+            out.write("\",\"cat\":\"qrcode\",\"ph\":\"X\",\"pid\":0,\"tid\":");
+            out.write(Long.toString(tid));
+            out.write(",\"ts\":");
+            writeMicros(out, starts[index]);
+            out.write(",\"dur\":");
+            writeMicros(out, durations[index]);
+            out.write(",\"args\":{\"camera\":");
+            out.write(Long.toString(cameras[index]));
+            out.write(",\"frame\":");
+            out.write(Long.toString(frames[index]));
+            out.write("}}");
+        }
+        for (Map.Entry<Long, String> entry : threadNames.entrySet()) {
+            if (!firstEvent) {
+                out.write(',');
+            }
+            firstEvent = false;
+            out.write("\n{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":0,\"tid\":");
+            out.write(Long.toString(entry.getKey()));
+            out.write(",\"args\":{\"name\":\"");
+            out.write(escape(entry.getValue()));
+            out.write("\"}}");
+        }
+        out.write("\n]}\n");
+        return count;
+    }
+
+    // trace-event的时间单位为微秒，保留三位小数
+    private static void writeMicros(Writer out, long nanos) throws IOException {
+        out.write(Long.toString(nanos / 1000));
+        out.write('.');
+        long fraction = nanos % 1000;
+        if (fraction < 100) {
+            out.write('0');
+        }
+        if (fraction < 10) {
+            out.write('0');
+        }
+        out.write(Long.toString(fraction));
+    }
+
+    private static String escape(String value) {
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < 0x20) {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,135 @@
+package com.qfpay.qrcode_plugin;
+
+import com.google.zxing.BarcodeFormat;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @Description: URI解析器，用于支付链接(如https://qr.alipay.com/...、wxp://...、bitcoin:...)，
+ * 拆分出scheme、host、path和query参数。
+ * "scheme://"形式的层级URI都会解析；没有"//"的URI只接受常见scheme，避免把"Note:abc"这类文本当作URI
+ * @CreateDate: 2026-10-18 15:02
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin
+ * @ClassName: UriPayloadParser
+ */
+class UriPayloadParser implements PayloadParser {
+    static final String NAME = "uri";
+
+    // 不带"//"的常见scheme
+    private static final Set<String> OPAQUE_SCHEMES = new HashSet<>(Arrays.asList(
+            "bitcoin", "bitcoincash", "litecoin", "ethereum", "mailto", "tel", "sms", "smsto", "geo", "market"));
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Map<String, Object> parse(String content, BarcodeFormat format) {
+        if (content == null) {
+            return null;
+        }
+        int schemeEnd = schemeEnd(content);
+        if (schemeEnd < 0 || containsWhitespace(content)) {
+            return null;
+        }
+        String scheme = content.substring(0, schemeEnd).toLowerCase(Locale.ROOT);
+        if (!content.startsWith("//", schemeEnd + 1) && !OPAQUE_SCHEMES.contains(scheme)) {
+            return null;
+        }
+        int end = content.indexOf('#', schemeEnd);
+        if (end < 0) {
+            end = content.length();
+        }
+        int queryStart = content.indexOf('?', schemeEnd);
+        if (queryStart > end) {
+            queryStart = -1;
+        }
+        int pathEnd = queryStart < 0 ? end : queryStart;
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("scheme", scheme);
+        int pathStart = schemeEnd + 1;
+        if (content.startsWith("//", pathStart)) {
+            int hostStart = pathStart + 2;
+            int hostEnd = content.indexOf('/', hostStart);
+            if (hostEnd < 0 || hostEnd > pathEnd) {
+                hostEnd = pathEnd;
+            }
+            payload.put("host", content.substring(hostStart, hostEnd));
+            pathStart = hostEnd;
+        }
+        payload.put("path", content.substring(pathStart, pathEnd));
+        payload.put("query", queryStart < 0 ? new LinkedHashMap<String, Object>() : parseQuery(content, queryStart + 1, end));
+        if (end < content.length()) {
+            payload.put("fragment", content.substring(end + 1));
+        }
+        return payload;
+    }
+
+    // scheme = ALPHA *( ALPHA / DIGIT / "+" / "-" / "." )，返回':'的位置
+    private static int schemeEnd(String content) {
+        int length = content.length();
+        for (int i = 0; i < length; i++) {
+            char c = content.charAt(i);
+            if (c == ':') {
+                return i > 0 && i + 1 < length ? i : -1;
+            }
+            boolean alpha = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+            if (!alpha && (i == 0 || !((c >= '0' && c <= '9') || c == '+' || c == '-' || c == '.'))) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean containsWhitespace(String content) {
+        for (int i = 0; i < content.length(); i++) {
+            if (Character.isWhitespace(content.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, Object> parseQuery(String content, int start, int end) {
+        Map<String, Object> query = new LinkedHashMap<>();
+        int pos = start;
+        while (pos < end) {
+            int next = content.indexOf('&', pos);
+            if (next < 0 || next > end) {
+                next = end;
+            }
+            if (next > pos) {
+                int eq = content.indexOf('=', pos);
+                if (eq < 0 || eq > next) {
+                    query.put(decode(content.substring(pos, next)), "");
+                } else {
+                    query.put(decode(content.substring(pos, eq)), decode(content.substring(eq + 1, next)));
+                }
+            }
+            pos = next + 1;
+        }
+        return query;
+    }
+
+    private static String decode(String value) {
+        if (value.indexOf('%') < 0 && value.indexOf('+') < 0) {
+            return value;
+        }
+        try {
+            return URLDecoder.decode(value, "UTF-8");
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.qfpay.qrcode_plugin;
+
+/**
+ * @Description: YUV420转ARGB，按最近邻缩放到输出尺寸，用于单路输出模式下在CPU上绘制预览
+ * @CreateDate: 2026-10-18 20:40
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin
+ * @ClassName: YuvConverter
+ */
+final class YuvConverter {
+
+    private YuvConverter() {
+    }
+
+    /**
+     * 使用BT.601(有限范围)系数转换
+     *
+     * @param frame     源帧
+     * @param out       输出像素，长度至少为outWidth * outHeight，调用方复用
+     * @param outWidth  输出宽度
+     * @param outHeight 输出高度
+     */
+    static void toArgb(YuvFrame frame, int[] out, int outWidth, int outHeight) {
+        toArgb(frame, 0, 0, frame.getWidth(), frame.getHeight(), out, outWidth, outHeight);
+    }
+
+    /**
+     * 只转换帧中的一块区域，缩放到输出尺寸
+     *
+     * @param frame      源帧
+     * @param cropLeft   区域左边界
+     * @param cropTop    区域上边界
+     * @param cropWidth  区域宽度
+     * @param cropHeight 区域高度
+     * @param out        输出像素，长度至少为outWidth * outHeight，调用方复用
+     * @param outWidth   输出宽度
+     * @param outHeight  输出高度
+     */
+    static void toArgb(YuvFrame frame, int cropLeft, int cropTop, int cropWidth, int cropHeight,
+                       int[] out, int outWidth, int outHeight) {
+        int width = frame.getWidth();
+        int height = frame.getHeight();
+        byte[] yPlane = frame.getY();
+        byte[] uPlane = frame.getU();
+        byte[] vPlane = frame.getV();
+        int chromaWidth = width / 2;
+        int chromaMax = chromaWidth * (height / 2) - 1;
+
+        for (int row = 0; row < outHeight; row++) {
+            int srcRow = cropTop + row * cropHeight / outHeight;
+            int yRowOffset = srcRow * width;
+            int uvRowOffset = (srcRow / 2) * chromaWidth;
+            int outOffset = row * outWidth;
+            for (int col = 0; col < outWidth; col++) {
+                int srcCol = cropLeft + col * cropWidth / outWidth;
+                int uvIndex = Math.min(uvRowOffset + srcCol / 2, chromaMax);
+                int y = (yPlane[yRowOffset + srcCol] & 0xFF) - 16;
+                int u = (uPlane[uvIndex] & 0xFF) - 128;
+                int v = (vPlane[uvIndex] & 0xFF) - 128;
+                if (y < 0) {
+                    y = 0;
+                }
+                // 系数放大1024倍后取整
+                int y1192 = 1192 * y;
+                int r = y1192 + 1634 * v;
+                int g = y1192 - 833 * v - 400 * u;
+                int b = y1192 + 2066 * u;
+                out[outOffset + col] = 0xFF000000
+                        | (clamp(r) << 6 & 0xFF0000)
+                        | (clamp(g) >> 2 & 0xFF00)
+                        | (clamp(b) >> 10 & 0xFF);
+            }
+        }
+    }
+
+    // 限制到[0, 255 << 10]
+    private static int clamp(int value) {
+        return value < 0 ? 0 : (value > 262143 ? 262143 : value);
+    }
+}
@@ -0,0 +1,97 @@
+package com.qfpay.qrcode_plugin;
+
+import java.nio.ByteBuffer;
+
+/**
+ * @Description: 可复用的YUV420帧缓冲，按紧凑排列保存Y、U、V平面(去掉行填充和像素间隔)。
+ * 尺寸不变时重复填充不会重新分配内存
+ * @CreateDate: 2026-10-18 20:10
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin
+ * @ClassName: YuvFrame
+ */
+class YuvFrame {
+    private int width;
+    private int height;
+    private byte[] y = new byte[0];
+    private byte[] u = new byte[0];
+    private byte[] v = new byte[0];
+    private long timestamp;
+
+    /**
+     * 从YUV_420_888图像平面复制数据
+     *
+     * @param yBuffer        Y平面
+     * @param yRowStride     Y平面行跨度
+     * @param uBuffer        U平面
+     * @param vBuffer        V平面
+     * @param uvRowStride    UV平面行跨度
+     * @param uvPixelStride  UV平面像素间隔
+     * @param width          图像宽度
+     * @param height         图像高度
+     * @param timestamp      帧时间戳
+     */
+    void fill(ByteBuffer yBuffer, int yRowStride,
+              ByteBuffer uBuffer, ByteBuffer vBuffer, int uvRowStride, int uvPixelStride,
+              int width, int height, long timestamp) {
+        ensureCapacity(width, height);
+        this.timestamp = timestamp;
+
+        if (yRowStride == width) {
+            yBuffer.position(0);
+            yBuffer.get(y, 0, width * height);
+        } else {
+            for (int row = 0; row < height; row++) {
+                yBuffer.position(row * yRowStride);
+                yBuffer.get(y, row * width, width);
+            }
+        }
+
+        int chromaWidth = width / 2;
+        int chromaHeight = height / 2;
+        for (int row = 0; row < chromaHeight; row++) {
+            int src = row * uvRowStride;
+            int dst = row * chromaWidth;
+            for (int col = 0; col < chromaWidth; col++) {
+                u[dst + col] = uBuffer.get(src);
+                v[dst + col] = vBuffer.get(src);
+                src += uvPixelStride;
+            }
+        }
+    }
+
+    private void ensureCapacity(int width, int height) {
+        if (this.width == width && this.height == height) {
+            return;
+        }
+        this.width = width;
+        this.height = height;
+        y = new byte[width * height];
+        u = new byte[(width / 2) * (height / 2)];
+        v = new byte[(width / 2) * (height / 2)];
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    byte[] getY() {
+        return y;
+    }
+
+    byte[] getU() {
+        return u;
+    }
+
+    byte[] getV() {
+        return v;
+    }
+
+    long getTimestamp() {
+        return timestamp;
+    }
+}
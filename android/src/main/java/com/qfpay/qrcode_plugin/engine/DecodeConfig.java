@@ -0,0 +1,162 @@
+package com.qfpay.qrcode_plugin.engine;
+
+import com.google.zxing.BarcodeFormat;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * @Description: 识别引擎配置，创建后不可修改，通过{@link Builder}创建。
+ * 包括识别格式、识别区域和识别策略
+ * @CreateDate: 2026-10-18 22:23
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin.engine
+ * @ClassName: DecodeConfig
+ */
+public final class DecodeConfig {
+
+    /**
+     * 二值化方式
+     */
+    public enum Binarizer {
+        // 局部阈值，适合光照不均的画面(默认)
+        HYBRID,
+        // 全局直方图，速度更快，适合光照均匀的画面
+        GLOBAL_HISTOGRAM,
+    }
+
+    private final Set<BarcodeFormat> formats;
+    private final float regionLeft;
+    private final float regionTop;
+    private final float regionWidth;
+    private final float regionHeight;
+    private final Binarizer binarizer;
+    private final boolean tryHarder;
+    private final boolean tryInverted;
+    private final boolean assumeGs1;
+
+    private DecodeConfig(Builder builder) {
+        this.formats = Collections.unmodifiableSet(EnumSet.copyOf(builder.formats));
+        this.regionLeft = builder.regionLeft;
+        this.regionTop = builder.regionTop;
+        this.regionWidth = builder.regionWidth;
+        this.regionHeight = builder.regionHeight;
+        this.binarizer = builder.binarizer;
+        this.tryHarder = builder.tryHarder;
+        this.tryInverted = builder.tryInverted;
+        this.assumeGs1 = builder.assumeGs1;
+    }
+
+    public Set<BarcodeFormat> getFormats() {
+        return formats;
+    }
+
+    public float getRegionLeft() {
+        return regionLeft;
+    }
+
+    public float getRegionTop() {
+        return regionTop;
+    }
+
+    public float getRegionWidth() {
+        return regionWidth;
+    }
+
+    public float getRegionHeight() {
+        return regionHeight;
+    }
+
+    public Binarizer getBinarizer() {
+        return binarizer;
+    }
+
+    public boolean isTryHarder() {
+        return tryHarder;
+    }
+
+    public boolean isTryInverted() {
+        return tryInverted;
+    }
+
+    public boolean isAssumeGs1() {
+        return assumeGs1;
+    }
+
+    public static final class Builder {
+        private Set<BarcodeFormat> formats = EnumSet.of(BarcodeFormat.QR_CODE);
+        private float regionLeft = 0f;
+        private float regionTop = 0f;
+        private float regionWidth = 1f;
+        private float regionHeight = 1f;
+        private Binarizer binarizer = Binarizer.HYBRID;
+        private boolean tryHarder = false;
+        private boolean tryInverted = false;
+        private boolean assumeGs1 = false;
+
+        /**
+         * 识别的条码格式，默认只识别二维码
+         *
+         * @throws IllegalArgumentException 格式为空时
+         */
+        public Builder setFormats(Set<BarcodeFormat> formats) {
+            if (formats == null || formats.isEmpty()) {
+                throw new IllegalArgumentException("At least one barcode format is required");
+            }
+            this.formats = formats;
+            return this;
+        }
+
+        /**
+         * 识别区域，按占画面宽高的比例(0~1)设置，默认为整个画面
+         *
+         * @throws IllegalArgumentException 区域为空或超出画面时
+         */
+        public Builder setRegion(float left, float top, float width, float height) {
+            if (left < 0 || top < 0 || width <= 0 || height <= 0
+                    || left + width > 1.0001f || top + height > 1.0001f) {
+                throw new IllegalArgumentException("Region must be inside the frame: "
+                        + left + ", " + top + ", " + width + ", " + height);
+            }
+            this.regionLeft = left;
+            this.regionTop = top;
+            this.regionWidth = width;
+            this.regionHeight = height;
+            return this;
+        }
+
+        public Builder setBinarizer(Binarizer binarizer) {
+            this.binarizer = binarizer;
+            return this;
+        }
+
+        /**
+         * 更彻底地查找条码，识别率更高但更耗时
+         */
+        public Builder setTryHarder(boolean tryHarder) {
+            this.tryHarder = tryHarder;
+            return this;
+        }
+
+        /**
+         * 识别失败时再按反色(深色背景浅色码)识别一次
+         */
+        public Builder setTryInverted(boolean tryInverted) {
+            this.tryInverted = tryInverted;
+            return this;
+        }
+
+        /**
+         * 保留GS1的FNC1分隔符，供解析GS1元素
+         */
+        public Builder setAssumeGs1(boolean assumeGs1) {
+            this.assumeGs1 = assumeGs1;
+            return this;
+        }
+
+        public DecodeConfig build() {
+            return new DecodeConfig(this);
+        }
+    }
+}
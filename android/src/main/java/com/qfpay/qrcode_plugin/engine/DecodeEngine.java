@@ -0,0 +1,167 @@
+package com.qfpay.qrcode_plugin.engine;
+
+import com.google.zxing.Binarizer;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.InvertedLuminanceSource;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.PlanarYUVLuminanceSource;
+import com.google.zxing.ReaderException;
+import com.google.zxing.Result;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.ResultPointCallback;
+import com.google.zxing.common.GlobalHistogramBinarizer;
+import com.google.zxing.common.HybridBinarizer;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * @Description: 与平台无关的条码识别引擎，输入一帧亮度数据(如YUV图像的Y平面)，输出识别结果。
+ * 只依赖ZXing，可在Android相机、服务端或JVM单元测试中使用。
+ * 识别器在第一次识别时创建。非线程安全，一个实例只能在一个线程中使用，多线程时每个线程创建一个实例：
+ * ZXing的识别器和定位点回调在创建时固定，每次识别都会修改它们的状态
+ * @CreateDate: 2026-10-18 22:23
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin.engine
+ * @ClassName: DecodeEngine
+ */
+public final class DecodeEngine {
+    // 计算平均亮度时横向、纵向的采样间隔(像素)
+    private static final int BRIGHTNESS_SAMPLE_STEP = 8;
+
+    private final DecodeConfig mConfig;
+    private final LazyBarcodeReader mReader;
+    private DecodeObserver mObserver;
+
+    // 当前帧检测到的定位点横坐标范围，识别失败时也能估计码的尺寸。
+    // 由识别器在decode过程中回调写入，decode开始时重置，因此同一实例不能在多个线程中同时识别
+    private float mPointMinX;
+    private float mPointMaxX;
+
+    public DecodeEngine(DecodeConfig config) {
+        this.mConfig = config;
+        Map<DecodeHintType, Object> hints = new EnumMap<>(DecodeHintType.class);
+        hints.put(DecodeHintType.POSSIBLE_FORMATS, config.getFormats());
+        if (config.isTryHarder()) {
+            hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+        }
+        if (config.isAssumeGs1()) {
+            hints.put(DecodeHintType.ASSUME_GS1, Boolean.TRUE);
+        }
+        hints.put(DecodeHintType.NEED_RESULT_POINT_CALLBACK, new ResultPointCallback() {
+            @Override
+            public void foundPossibleResultPoint(ResultPoint point) {
+                mPointMinX = Math.min(mPointMinX, point.getX());
+                mPointMaxX = Math.max(mPointMaxX, point.getX());
+            }
+        });
+        this.mReader = new LazyBarcodeReader(hints);
+    }
+
+    public DecodeConfig getConfig() {
+        return mConfig;
+    }
+
+    /**
+     * 设置各阶段耗时的观察者，为null时不计时
+     */
+    public void setObserver(DecodeObserver observer) {
+        this.mObserver = observer;
+    }
+
+    /**
+     * 创建识别器的耗时(微秒)，尚未识别过时为0
+     */
+    public long getReaderBuildMicros() {
+        return mReader.getBuildMicros();
+    }
+
+    /**
+     * 识别一帧，只能在创建识别器的线程中调用
+     *
+     * @param luminance 亮度数据，每个像素一个字节，长度至少为rowStride * (height - 1) + width
+     * @param rowStride 行跨度，不小于width
+     * @param width     图像宽度
+     * @param height    图像高度
+     * @return 识别结果，不会为null
+     */
+    public DecodeOutcome decode(byte[] luminance, int rowStride, int width, int height) {
+        DecodeObserver observer = mObserver;
+        boolean observed = observer != null && observer.isEnabled();
+        long start = observed ? System.nanoTime() : 0L;
+
+        int left = Math.min((int) (mConfig.getRegionLeft() * width), width - 1);
+        int top = Math.min((int) (mConfig.getRegionTop() * height), height - 1);
+        int cropWidth = Math.max(1, Math.min((int) (mConfig.getRegionWidth() * width), width - left));
+        int cropHeight = Math.max(1, Math.min((int) (mConfig.getRegionHeight() * height), height - top));
+        int brightness = averageLuminance(luminance, rowStride, left, top, cropWidth, cropHeight);
+        LuminanceSource source = new PlanarYUVLuminanceSource(luminance, rowStride, height,
+                left, top, cropWidth, cropHeight, false);
+        mPointMinX = Float.MAX_VALUE;
+        mPointMaxX = -Float.MAX_VALUE;
+        if (observed) {
+            observer.onStage(DecodeObserver.STAGE_LUMINANCE, start);
+        }
+
+        Result result = decode(source, observed ? observer : null);
+        if (result == null && mConfig.isTryInverted()) {
+            result = decode(new InvertedLuminanceSource(source), observed ? observer : null);
+        }
+        float codeRatio = mPointMaxX > mPointMinX ? (mPointMaxX - mPointMinX) / cropWidth : 0f;
+        return new DecodeOutcome(result, brightness, codeRatio);
+    }
+
+    private Result decode(LuminanceSource source, DecodeObserver observer) {
+        BinaryBitmap bitmap = new BinaryBitmap(createBinarizer(source));
+        try {
+            if (observer != null) {
+                // 二值化结果由BinaryBitmap缓存，计时时提前计算，以便和识别耗时分开统计
+                long start = System.nanoTime();
+                bitmap.getBlackMatrix();
+                observer.onStage(DecodeObserver.STAGE_BINARIZE, start);
+            }
+            long start = observer != null ? System.nanoTime() : 0L;
+            try {
+                return mReader.decode(bitmap);
+            } finally {
+                if (observer != null) {
+                    observer.onStage(DecodeObserver.STAGE_READER, start);
+                }
+            }
+        } catch (ReaderException re) {
+            // continue
+        }
+        return null;
+    }
+
+    private Binarizer createBinarizer(LuminanceSource source) {
+        switch (mConfig.getBinarizer()) {
+            case GLOBAL_HISTOGRAM:
+                return new GlobalHistogramBinarizer(source);
+            case HYBRID:
+            default:
+                return new HybridBinarizer(source);
+        }
+    }
+
+    /**
+     * 在识别区域内按网格抽样计算平均亮度，不读取行末填充和缓冲区末尾的多余字节
+     */
+    private static int averageLuminance(byte[] data, int rowStride, int left, int top, int width, int height) {
+        long sum = 0;
+        int count = 0;
+        for (int y = top + BRIGHTNESS_SAMPLE_STEP / 2; y < top + height; y += BRIGHTNESS_SAMPLE_STEP) {
+            int offset = y * rowStride;
+            for (int x = left + BRIGHTNESS_SAMPLE_STEP / 2; x < left + width; x += BRIGHTNESS_SAMPLE_STEP) {
+                sum += data[offset + x] & 0xFF;
+                count++;
+            }
+        }
+        if (count == 0) {
+            // 区域小于采样间隔时取中心像素
+            return data[(top + height / 2) * rowStride + left + width / 2] & 0xFF;
+        }
+        return (int) (sum / count);
+    }
+}
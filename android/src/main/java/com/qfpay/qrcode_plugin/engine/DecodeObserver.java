@@ -0,0 +1,28 @@
+package com.qfpay.qrcode_plugin.engine;
+
+/**
+ * @Description: 识别各阶段耗时的观察者，用于耗时追踪。
+ * 每帧开始时调用一次{@link #isEnabled()}，返回false时该帧不计时
+ * @CreateDate: 2026-10-18 22:23
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin.engine
+ * @ClassName: DecodeObserver
+ */
+public interface DecodeObserver {
+    // 创建亮度源
+    int STAGE_LUMINANCE = 0;
+    // 二值化
+    int STAGE_BINARIZE = 1;
+    // 一次识别器调用，反色识别时一帧有两次
+    int STAGE_READER = 2;
+
+    boolean isEnabled();
+
+    /**
+     * 一个阶段结束，在识别线程中调用
+     *
+     * @param stage      阶段，STAGE_*常量
+     * @param startNanos 阶段开始时的System.nanoTime()
+     */
+    void onStage(int stage, long startNanos);
+}
@@ -0,0 +1,50 @@
+package com.qfpay.qrcode_plugin.engine;
+
+import com.google.zxing.Result;
+
+/**
+ * @Description: 一帧的识别结果，识别失败时也包含画面亮度和检测到的码尺寸
+ * @CreateDate: 2026-10-18 22:23
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin.engine
+ * @ClassName: DecodeOutcome
+ */
+public final class DecodeOutcome {
+    private final Result result;
+    private final int brightness;
+    private final float codeRatio;
+
+    DecodeOutcome(Result result, int brightness, float codeRatio) {
+        this.result = result;
+        this.brightness = brightness;
+        this.codeRatio = codeRatio;
+    }
+
+    /**
+     * 是否识别出非空内容
+     */
+    public boolean isDecoded() {
+        return result != null && result.getText() != null && !result.getText().isEmpty();
+    }
+
+    /**
+     * ZXing识别结果，识别失败时为null
+     */
+    public Result getResult() {
+        return result;
+    }
+
+    /**
+     * 识别区域内的平均亮度(0~255)
+     */
+    public int getBrightness() {
+        return brightness;
+    }
+
+    /**
+     * 检测到的码宽度占识别区域宽度的比例，未检测到时为0
+     */
+    public float getCodeRatio() {
+        return codeRatio;
+    }
+}
@@ -0,0 +1,57 @@
+package com.qfpay.qrcode_plugin.engine;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.Result;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * @Description: 延迟创建的ZXing识别器。MultiFormatReader在setHints时会为每种格式创建子识别器，
+ * 这里推迟到识别线程收到第一帧时再创建，初始化相机时不再承担这部分开销。
+ * 非线程安全，只能在识别线程中使用
+ * @CreateDate: 2026-10-18 19:15
+ * @ProjectName: android
+ * @Package: com.qfpay.qrcode_plugin.engine
+ * @ClassName: LazyBarcodeReader
+ */
+class LazyBarcodeReader {
+    private final Map<DecodeHintType, Object> mHints;
+    private MultiFormatReader mReader;
+    private volatile long mBuildMicros;
+
+    LazyBarcodeReader(Map<DecodeHintType, ?> hints) {
+        this.mHints = Collections.unmodifiableMap(new EnumMap<DecodeHintType, Object>(hints));
+    }
+
+    Result decode(BinaryBitmap bitmap) throws NotFoundException {
+        MultiFormatReader reader = obtainReader();
+        try {
+            return reader.decodeWithState(bitmap);
+        } finally {
+            reader.reset();
+        }
+    }
+
+    /**
+     * 创建识别器的耗时(微秒)，尚未创建时为0
+     */
+    long getBuildMicros() {
+        return mBuildMicros;
+    }
+
+    private MultiFormatReader obtainReader() {
+        if (mReader == null) {
+            long start = System.nanoTime();
+            MultiFormatReader reader = new MultiFormatReader();
+            reader.setHints(mHints);
+            mReader = reader;
+            mBuildMicros = Math.max(1, (System.nanoTime() - start) / 1000);
+        }
+        return mReader;
+    }
+}
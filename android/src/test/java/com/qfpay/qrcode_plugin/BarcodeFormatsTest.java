@@ -0,0 +1,83 @@
+package com.qfpay.qrcode_plugin;
+
+import com.google.zxing.BarcodeFormat;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BarcodeFormatsTest {
+
+    @Test
+    public void parsesEveryDartFormatName() {
+        Set<BarcodeFormat> formats = BarcodeFormats.parse(Arrays.asList("codabar", "code39", "code93", "code128",
+                "ean8", "ean13", "itf", "upca", "upce", "aztec", "datamatrix", "pdf417", "qr"));
+
+        assertEquals(EnumSet.of(BarcodeFormat.CODABAR, BarcodeFormat.CODE_39, BarcodeFormat.CODE_93,
+                BarcodeFormat.CODE_128, BarcodeFormat.EAN_8, BarcodeFormat.EAN_13, BarcodeFormat.ITF,
+                BarcodeFormat.UPC_A, BarcodeFormat.UPC_E, BarcodeFormat.AZTEC, BarcodeFormat.DATA_MATRIX,
+                BarcodeFormat.PDF_417, BarcodeFormat.QR_CODE), formats);
+    }
+
+    @Test
+    public void duplicateNamesCollapse() {
+        Set<BarcodeFormat> formats = BarcodeFormats.parse(Arrays.asList("qr", "ean13", "qr"));
+
+        assertEquals(EnumSet.of(BarcodeFormat.QR_CODE, BarcodeFormat.EAN_13), formats);
+    }
+
+    @Test
+    public void missingNamesUseSharedDefault() {
+        assertSame(BarcodeFormats.DEFAULT_FORMATS, BarcodeFormats.parse(null));
+        assertSame(BarcodeFormats.DEFAULT_FORMATS, BarcodeFormats.parse(Collections.<String>emptyList()));
+        assertEquals(EnumSet.of(BarcodeFormat.QR_CODE), BarcodeFormats.DEFAULT_FORMATS);
+    }
+
+    @Test
+    public void unknownNameThrows() {
+        try {
+            BarcodeFormats.parse(Arrays.asList("qr", "maxicode"));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("maxicode"));
+        }
+    }
+
+    @Test
+    public void nullNameThrows() {
+        try {
+            BarcodeFormats.parse(Arrays.asList("qr", null));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("null"));
+        }
+    }
+
+    @Test
+    public void namesAreCaseSensitive() {
+        // 名称与camera.dart中的枚举名一致，不做大小写转换
+        assertNull(BarcodeFormats.forName("QR"));
+        assertNull(BarcodeFormats.forName("qr_code"));
+        assertNull(BarcodeFormats.forName(null));
+        assertSame(BarcodeFormat.QR_CODE, BarcodeFormats.forName("qr"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void parsedSetIsUnmodifiable() {
+        BarcodeFormats.parse(Arrays.asList("qr")).add(BarcodeFormat.EAN_8);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void defaultSetIsUnmodifiable() {
+        BarcodeFormats.DEFAULT_FORMATS.add(BarcodeFormat.EAN_8);
+    }
+}
@@ -0,0 +1,123 @@
+package com.qfpay.qrcode_plugin;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.Result;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class DecodeResultCacheTest {
+    private static final List<PayloadParser> NO_PARSERS = Collections.emptyList();
+
+    private final ScanMetrics metrics = new ScanMetrics();
+
+    @Test
+    public void returnsCachedResultForSameRawBytes() {
+        DecodeResultCache cache = new DecodeResultCache(4, metrics);
+        ScanResult first = cache.obtain(qr("hello", new byte[]{1, 2, 3}), NO_PARSERS);
+        // 原始字节相同时即使文本不同也命中
+        ScanResult second = cache.obtain(qr("other", new byte[]{1, 2, 3}), NO_PARSERS);
+
+        assertSame(first, second);
+        assertEquals("hello", second.getContent());
+        assertEquals(1, metrics.cacheHits.get());
+        assertEquals(1, metrics.cacheMisses.get());
+    }
+
+    @Test
+    public void differentRawBytesMiss() {
+        DecodeResultCache cache = new DecodeResultCache(4, metrics);
+        ScanResult first = cache.obtain(qr("hello", new byte[]{1, 2, 3}), NO_PARSERS);
+        ScanResult second = cache.obtain(qr("hello", new byte[]{1, 2, 4}), NO_PARSERS);
+
+        assertNotSame(first, second);
+        assertEquals(0, metrics.cacheHits.get());
+        assertEquals(2, metrics.cacheMisses.get());
+    }
+
+    @Test
+    public void usesTextWhenThereAreNoRawBytes() {
+        DecodeResultCache cache = new DecodeResultCache(4, metrics);
+        ScanResult first = cache.obtain(code128("6901234567892"), NO_PARSERS);
+
+        assertSame(first, cache.obtain(code128("6901234567892"), NO_PARSERS));
+        assertNotSame(first, cache.obtain(code128("6901234567893"), NO_PARSERS));
+        assertEquals(1, metrics.cacheHits.get());
+        assertEquals(2, metrics.cacheMisses.get());
+    }
+
+    @Test
+    public void formatIsPartOfKey() {
+        DecodeResultCache cache = new DecodeResultCache(4, metrics);
+        ScanResult qr = cache.obtain(new Result("abc", null, null, BarcodeFormat.QR_CODE), NO_PARSERS);
+        ScanResult code128 = cache.obtain(code128("abc"), NO_PARSERS);
+
+        assertNotSame(qr, code128);
+        assertEquals("QR_CODE", qr.getFormat());
+        assertEquals("CODE_128", code128.getFormat());
+    }
+
+    @Test
+    public void parserListIsPartOfKey() {
+        DecodeResultCache cache = new DecodeResultCache(4, metrics);
+        List<PayloadParser> uri = Collections.<PayloadParser>singletonList(new UriPayloadParser());
+        Result result = qr("https://qfpay.com/pay?id=1", new byte[]{9});
+
+        ScanResult plain = cache.obtain(result, NO_PARSERS);
+        ScanResult parsed = cache.obtain(result, uri);
+
+        assertNotSame(plain, parsed);
+        assertNull(plain.getPayloadType());
+        assertEquals(UriPayloadParser.NAME, parsed.getPayloadType());
+        assertSame(parsed, cache.obtain(result, uri));
+        assertEquals(1, metrics.cacheHits.get());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        DecodeResultCache cache = new DecodeResultCache(2, metrics);
+        ScanResult a = cache.obtain(qr("a", new byte[]{'a'}), NO_PARSERS);
+        ScanResult b = cache.obtain(qr("b", new byte[]{'b'}), NO_PARSERS);
+        // 访问a后b成为最久未使用的一项
+        assertSame(a, cache.obtain(qr("a", new byte[]{'a'}), NO_PARSERS));
+        cache.obtain(qr("c", new byte[]{'c'}), NO_PARSERS);
+
+        assertEquals(1, metrics.cacheEvictions.get());
+        assertSame(a, cache.obtain(qr("a", new byte[]{'a'}), NO_PARSERS));
+        assertNotSame(b, cache.obtain(qr("b", new byte[]{'b'}), NO_PARSERS));
+        assertEquals(2, metrics.cacheEvictions.get());
+        assertEquals(2, metrics.cacheHits.get());
+        assertEquals(4, metrics.cacheMisses.get());
+    }
+
+    @Test
+    public void clearDropsEntries() {
+        DecodeResultCache cache = new DecodeResultCache(4, metrics);
+        ScanResult first = cache.obtain(qr("a", new byte[]{'a'}), NO_PARSERS);
+        cache.clear();
+
+        assertNotSame(first, cache.obtain(qr("a", new byte[]{'a'}), NO_PARSERS));
+        assertEquals(0, metrics.cacheHits.get());
+        assertEquals(0, metrics.cacheEvictions.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveCapacity() {
+        new DecodeResultCache(0, metrics);
+    }
+
+    private static Result qr(String text, byte[] rawBytes) {
+        return new Result(text, rawBytes, null, BarcodeFormat.QR_CODE);
+    }
+
+    private static Result code128(String text) {
+        return new Result(text, null, null, BarcodeFormat.CODE_128);
+    }
+}
@@ -0,0 +1,138 @@
+package com.qfpay.qrcode_plugin;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DecodeWorkerPoolTest {
+    private static final int CYCLES = 1000;
+    private static final int WORKERS = 2;
+
+    private final List<Thread> mThreads = new ArrayList<>();
+    private final ThreadFactory mThreadFactory = new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "QrcodeDecodeTest-" + mThreads.size());
+            mThreads.add(thread);
+            return thread;
+        }
+    };
+
+    @Test
+    public void createScheduleShutdownCyclesDoNotLeakThreads() throws InterruptedException {
+        int baseline = Thread.activeCount();
+
+        for (int i = 0; i < CYCLES; i++) {
+            DecodeWorkerPool pool = new DecodeWorkerPool(WORKERS, mThreadFactory);
+            final CountDownLatch done = new CountDownLatch(1);
+            DecodeWorkerPool.Slot slot = pool.newSlot(new Runnable() {
+                @Override
+                public void run() {
+                    done.countDown();
+                }
+            });
+            assertTrue(slot.schedule());
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            pool.shutdown();
+        }
+
+        assertEquals(CYCLES * WORKERS, mThreads.size());
+        for (Thread thread : mThreads) {
+            thread.join(5000);
+            assertFalse(thread.getName() + " is still alive", thread.isAlive());
+        }
+        assertTrue(Thread.activeCount() <= baseline);
+    }
+
+    @Test
+    public void slotHoldsAtMostOnePendingFrame() throws InterruptedException {
+        DecodeWorkerPool pool = new DecodeWorkerPool(1, mThreadFactory);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        DecodeWorkerPool.Slot busy = pool.newSlot(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                awaitQuietly(release);
+            }
+        });
+        DecodeWorkerPool.Slot queued = pool.newSlot(new Runnable() {
+            @Override
+            public void run() {
+            }
+        });
+
+        assertTrue(busy.schedule());
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // 执行中的槽位不能再投递
+        assertFalse(busy.schedule());
+        assertTrue(queued.schedule());
+        // 排队中的槽位不能重复投递，取消后可以重新投递
+        assertFalse(queued.schedule());
+        queued.cancel();
+        assertTrue(queued.schedule());
+
+        release.countDown();
+        pool.shutdown();
+        for (Thread thread : mThreads) {
+            thread.join(5000);
+            assertFalse(thread.isAlive());
+        }
+        assertFalse(busy.schedule());
+    }
+
+    @Test
+    public void slotsAreServedInArrivalOrder() throws InterruptedException {
+        DecodeWorkerPool pool = new DecodeWorkerPool(1, mThreadFactory);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> order = new ArrayList<>();
+        final CountDownLatch done = new CountDownLatch(3);
+        DecodeWorkerPool.Slot blocker = pool.newSlot(new Runnable() {
+            @Override
+            public void run() {
+                awaitQuietly(release);
+                done.countDown();
+            }
+        });
+        DecodeWorkerPool.Slot first = pool.newSlot(record(order, "first", done));
+        DecodeWorkerPool.Slot second = pool.newSlot(record(order, "second", done));
+
+        blocker.schedule();
+        second.schedule();
+        first.schedule();
+        release.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        pool.shutdown();
+        assertEquals("second", order.get(0));
+        assertEquals("first", order.get(1));
+    }
+
+    private static Runnable record(final List<String> order, final String name, final CountDownLatch done) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                synchronized (order) {
+                    order.add(name);
+                }
+                done.countDown();
+            }
+        };
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.qfpay.qrcode_plugin;
+
+import com.google.zxing.BarcodeFormat;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class EmvcoPayloadParserTest {
+    // 商户账户信息模板26和附加数据模板62，CRC为0DB6
+    private static final String PAYLOAD = "000201" + "010212"
+            + "2625" + "0009com.qfpay" + "0108MERCH001"
+            + "52045812" + "5303156" + "5406100.00" + "5802CN" + "5905QFPAY" + "6008SHANGHAI"
+            + "6210" + "0106ORD001"
+            + "63040DB6";
+
+    private final EmvcoPayloadParser parser = new EmvcoPayloadParser();
+
+    @Test
+    public void parsesTopLevelAndNestedTemplates() {
+        Map<String, Object> fields = fields(parser.parse(PAYLOAD, BarcodeFormat.QR_CODE));
+
+        assertEquals("01", fields.get("payloadFormatIndicator"));
+        assertEquals("12", fields.get("pointOfInitiationMethod"));
+        assertEquals("100.00", fields.get("transactionAmount"));
+        assertEquals("QFPAY", fields.get("merchantName"));
+        assertEquals("SHANGHAI", fields.get("merchantCity"));
+
+        Map<String, Object> account = nested(fields.get("26"));
+        assertEquals("com.qfpay", account.get("00"));
+        assertEquals("MERCH001", account.get("01"));
+        assertEquals("ORD001", nested(fields.get("additionalData")).get("01"));
+    }
+
+    @Test
+    public void validatesCrc() {
+        assertEquals(Boolean.TRUE, parser.parse(PAYLOAD, BarcodeFormat.QR_CODE).get("crcValid"));
+
+        String tampered = PAYLOAD.replace("100.00", "200.00");
+        Map<String, Object> payload = parser.parse(tampered, BarcodeFormat.QR_CODE);
+        assertEquals(Boolean.FALSE, payload.get("crcValid"));
+        assertEquals("200.00", fields(payload).get("transactionAmount"));
+    }
+
+    @Test
+    public void rejectsTruncatedTlv() {
+        assertNull(parser.parse(PAYLOAD.substring(0, PAYLOAD.indexOf("QFPAY") + 2), BarcodeFormat.QR_CODE));
+        assertNull(parser.parse("00020101", BarcodeFormat.QR_CODE));
+        assertNull(parser.parse("0002015", BarcodeFormat.QR_CODE));
+    }
+
+    @Test
+    public void ignoresContentWithoutPayloadFormatIndicator() {
+        assertNull(parser.parse("https://example.com", BarcodeFormat.QR_CODE));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> fields(Map<String, Object> payload) {
+        return (Map<String, Object>) payload.get("fields");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> nested(Object value) {
+        return (Map<String, Object>) value;
+    }
+}
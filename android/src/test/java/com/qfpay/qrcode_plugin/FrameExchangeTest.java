@@ -0,0 +1,69 @@
+package com.qfpay.qrcode_plugin;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class FrameExchangeTest {
+
+    @Test
+    public void acquireReturnsNullWhenNothingIsNew() {
+        FrameExchange exchange = new FrameExchange();
+        assertNull(exchange.acquire());
+
+        YuvFrame back = exchange.backBuffer();
+        exchange.publish();
+        assertSame(back, exchange.acquire());
+        assertNull(exchange.acquire());
+    }
+
+    @Test
+    public void acquireReturnsLatestPublishedFrame() {
+        FrameExchange exchange = new FrameExchange();
+        publish(exchange, 1L);
+        publish(exchange, 2L);
+        publish(exchange, 3L);
+
+        YuvFrame frame = exchange.acquire();
+        assertNotNull(frame);
+        assertEquals(3L, frame.getTimestamp());
+    }
+
+    @Test
+    public void consumerFrameIsNeverTheBackBuffer() {
+        FrameExchange exchange = new FrameExchange();
+        Random random = new Random(7);
+        YuvFrame consumed = null;
+        long published = 0L;
+        for (int i = 0; i < 10000; i++) {
+            if (random.nextBoolean()) {
+                published++;
+                publish(exchange, published);
+            } else {
+                YuvFrame frame = exchange.acquire();
+                if (frame != null) {
+                    assertEquals(published, frame.getTimestamp());
+                    consumed = frame;
+                }
+            }
+            // 消费者持有的帧在下次acquire前不能被生产者写入
+            if (consumed != null) {
+                assertNotSame(consumed, exchange.backBuffer());
+            }
+        }
+    }
+
+    private static void publish(FrameExchange exchange, long timestamp) {
+        YuvFrame back = exchange.backBuffer();
+        back.fill(ByteBuffer.allocate(4), 2, ByteBuffer.allocate(1),
+                ByteBuffer.allocate(1), 1, 1, 2, 2, timestamp);
+        exchange.publish();
+    }
+}
@@ -0,0 +1,103 @@
+package com.qfpay.qrcode_plugin;
+
+import com.google.zxing.BarcodeFormat;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class Gs1PayloadParserTest {
+    private static final char GS = 29;
+    private final Gs1PayloadParser parser = new Gs1PayloadParser();
+
+    @Test
+    public void parsesSymbologyIdentifierWithGroupSeparators() {
+        Map<String, Object> payload = parser.parse("]C1" + "0104006381333931" + "10ABC123" + GS + "21XYZ",
+                BarcodeFormat.CODE_128);
+
+        List<Map<String, Object>> elements = elements(payload);
+        assertEquals(3, elements.size());
+        assertEquals("01", elements.get(0).get("ai"));
+        assertEquals("GTIN", elements.get(0).get("title"));
+        assertEquals("04006381333931", elements.get(0).get("value"));
+        assertEquals(Boolean.TRUE, elements.get(0).get("checkDigitValid"));
+        assertEquals("ABC123", values(payload).get("10"));
+        assertEquals("XYZ", values(payload).get("21"));
+        assertFalse(elements.get(1).containsKey("checkDigitValid"));
+    }
+
+    @Test
+    public void parsesBracketedForm() {
+        Map<String, Object> payload = parser.parse("(01)04006381333931(17)251231(10)LOT42", BarcodeFormat.RSS_EXPANDED);
+
+        assertEquals(3, elements(payload).size());
+        assertEquals("04006381333931", values(payload).get("01"));
+        assertEquals("251231", values(payload).get("17"));
+        assertEquals("LOT42", values(payload).get("10"));
+    }
+
+    @Test
+    public void fixedLengthElementsNeedNoSeparator() {
+        Map<String, Object> payload = parser.parse("]C1" + "0104006381333931" + "17251231" + "3103000750" + "10LOT",
+                BarcodeFormat.CODE_128);
+
+        List<Map<String, Object>> elements = elements(payload);
+        assertEquals(4, elements.size());
+        assertEquals("251231", values(payload).get("17"));
+        assertEquals("3103", elements.get(2).get("ai"));
+        assertEquals("000750", elements.get(2).get("value"));
+        assertEquals("LOT", values(payload).get("10"));
+    }
+
+    @Test
+    public void rejectsOverLongVariableField() {
+        String lot = "ABCDEFGHIJKLMNOPQRSTU";
+        assertNull(parser.parse("]C1" + "10" + lot, BarcodeFormat.CODE_128));
+        assertNull(parser.parse("(10)" + lot, BarcodeFormat.RSS_EXPANDED));
+    }
+
+    @Test
+    public void rejectsTruncatedFixedField() {
+        assertNull(parser.parse("]C1" + "01040063813339", BarcodeFormat.CODE_128));
+    }
+
+    @Test
+    public void ignoresPlainContentWithoutIdentifier() {
+        assertNull(parser.parse("0104006381333931", BarcodeFormat.QR_CODE));
+        assertNull(parser.parse("hello", BarcodeFormat.QR_CODE));
+    }
+
+    @Test
+    public void reportsCheckDigitForKeys() {
+        Map<String, Object> payload = parser.parse("(00)106141412345678908(01)04006381333932(414)5412345000013",
+                BarcodeFormat.RSS_EXPANDED);
+
+        List<Map<String, Object>> elements = elements(payload);
+        assertEquals(Boolean.TRUE, elements.get(0).get("checkDigitValid"));
+        assertEquals(Boolean.FALSE, elements.get(1).get("checkDigitValid"));
+        assertEquals(Boolean.TRUE, elements.get(2).get("checkDigitValid"));
+    }
+
+    @Test
+    public void checkDigitRejectsNonNumericValues() {
+        assertTrue(Gs1PayloadParser.isCheckDigitValid("04006381333931"));
+        assertFalse(Gs1PayloadParser.isCheckDigitValid("0400638133393A"));
+        assertFalse(Gs1PayloadParser.isCheckDigitValid("7"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> elements(Map<String, Object> payload) {
+        return (List<Map<String, Object>>) payload.get("elements");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> values(Map<String, Object> payload) {
+        return (Map<String, Object>) payload.get("values");
+    }
+}
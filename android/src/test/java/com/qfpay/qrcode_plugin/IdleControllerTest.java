@@ -0,0 +1,225 @@
+package com.qfpay.qrcode_plugin;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IdleControllerTest {
+    private static final int WIDTH = 320;
+    private static final int HEIGHT = 240;
+    // 每个格子10x10像素
+    private static final int CELL_WIDTH = WIDTH / IdleController.GRID_COLUMNS;
+    private static final int CELL_HEIGHT = HEIGHT / IdleController.GRID_ROWS;
+    private static final int CELLS = IdleController.GRID_COLUMNS * IdleController.GRID_ROWS;
+    // 1.5秒
+    private static final long TIMEOUT_MS = IdleController.timeoutMillis(1.5);
+
+    private final List<Boolean> mActuations = new ArrayList<>();
+    private final ScanMetrics mMetrics = new ScanMetrics();
+    private final IdleController mController = new IdleController(new IdleController.Actuator() {
+        @Override
+        public void setIdle(boolean idle) {
+            mActuations.add(idle);
+        }
+    }, TIMEOUT_MS, mMetrics, 0);
+
+    @Test
+    public void convertsFractionalSecondsToMillis() {
+        assertEquals(1500, TIMEOUT_MS);
+        assertEquals(250, IdleController.timeoutMillis(0.25));
+        assertEquals(2, IdleController.timeoutMillis(0.0015));
+        assertEquals(2000, IdleController.timeoutMillis(2));
+        // 不足1毫秒和未传时不开启
+        assertEquals(0, IdleController.timeoutMillis(0.0004));
+        assertEquals(0, IdleController.timeoutMillis(null));
+    }
+
+    @Test
+    public void entersIdleExactlyAtTimeout() {
+        mController.onDecodedFrame(false, 1499);
+        assertFalse(mController.isIdle());
+        assertTrue(mActuations.isEmpty());
+
+        mController.onDecodedFrame(false, 1500);
+        assertTrue(mController.isIdle());
+        assertEquals(Arrays.asList(true), mActuations);
+        assertEquals(1, mMetrics.idleEntries.get());
+    }
+
+    @Test
+    public void decodeSuccessRestartsTimeout() {
+        mController.onDecodedFrame(true, 1000);
+        mController.onDecodedFrame(false, 2499);
+        assertFalse(mController.isIdle());
+
+        mController.onDecodedFrame(false, 2500);
+        assertTrue(mController.isIdle());
+    }
+
+    @Test
+    public void staticSceneStaysIdle() {
+        enterIdle();
+        for (int i = 0; i < 20; i++) {
+            // 传感器噪声低于格子变化阈值
+            int noise = i % 2 == 0 ? 0 : IdleController.CELL_CHANGE_THRESHOLD;
+            assertFalse(mController.onIdleFrame(frame(100 + noise, 0, 0, WIDTH), WIDTH, WIDTH, HEIGHT, 2000 + i * 100));
+        }
+
+        assertTrue(mController.isIdle());
+        assertEquals(Arrays.asList(true), mActuations);
+        assertEquals(0, mMetrics.idleExits.get());
+    }
+
+    @Test
+    public void slowLightingDriftDoesNotWake() {
+        enterIdle();
+        // 每帧变化都低于阈值，与上一帧比较，累计变化再大也不唤醒
+        for (int i = 0; i < 15; i++) {
+            assertFalse(mController.onIdleFrame(frame(20 + i * 10, 0, 0, WIDTH), WIDTH, WIDTH, HEIGHT, 2000 + i * 100));
+        }
+        assertTrue(mController.isIdle());
+    }
+
+    @Test
+    public void firstIdleFrameOnlySetsReference() {
+        enterIdle();
+
+        assertFalse(mController.onIdleFrame(frame(0, 0, 0, WIDTH), WIDTH, WIDTH, HEIGHT, 1600));
+        assertTrue(mController.onIdleFrame(frame(255, 0, 0, WIDTH), WIDTH, WIDTH, HEIGHT, 1700));
+    }
+
+    @Test
+    public void changedSceneWakes() {
+        enterIdle();
+        mController.onIdleFrame(frame(100, 0, 0, WIDTH), WIDTH, WIDTH, HEIGHT, 1600);
+
+        // 一个码进入画面，覆盖超过5%的格子
+        int cells = (int) (CELLS * IdleController.SCENE_CHANGE_RATIO) + 1;
+        assertTrue(mController.onIdleFrame(frame(100, 200, cells, WIDTH), WIDTH, WIDTH, HEIGHT, 1700));
+
+        assertFalse(mController.isIdle());
+        assertEquals(Arrays.asList(true, false), mActuations);
+        assertEquals(1, mMetrics.idleExits.get());
+        // 唤醒后重新计时
+        mController.onDecodedFrame(false, 1700 + TIMEOUT_MS - 1);
+        assertFalse(mController.isIdle());
+        mController.onDecodedFrame(false, 1700 + TIMEOUT_MS);
+        assertTrue(mController.isIdle());
+        assertEquals(2, mMetrics.idleEntries.get());
+    }
+
+    @Test
+    public void changeBelowSceneRatioDoesNotWake() {
+        enterIdle();
+        mController.onIdleFrame(frame(100, 0, 0, WIDTH), WIDTH, WIDTH, HEIGHT, 1600);
+
+        int cells = (int) (CELLS * IdleController.SCENE_CHANGE_RATIO);
+        assertFalse(mController.onIdleFrame(frame(100, 200, cells, WIDTH), WIDTH, WIDTH, HEIGHT, 1700));
+        assertTrue(mController.isIdle());
+    }
+
+    @Test
+    public void rowStridePaddingIsIgnored() {
+        int rowStride = WIDTH + 64;
+        enterIdle();
+        mController.onIdleFrame(frame(100, 0, 0, rowStride), rowStride, WIDTH, HEIGHT, 1600);
+
+        // 只有每行末尾的填充字节变化
+        ByteBuffer padded = frame(100, 0, 0, rowStride);
+        for (int row = 0; row < HEIGHT; row++) {
+            for (int col = WIDTH; col < rowStride; col++) {
+                padded.put(row * rowStride + col, (byte) 255);
+            }
+        }
+        assertFalse(mController.onIdleFrame(padded, rowStride, WIDTH, HEIGHT, 1700));
+        assertTrue(mController.isIdle());
+    }
+
+    @Test
+    public void accountsActiveAndIdleTime() {
+        mController.onDecodedFrame(false, 500);
+        mController.onDecodedFrame(false, 1000);
+        assertEquals(1000, mMetrics.activeMillis.get());
+
+        mController.onDecodedFrame(false, 2500);
+        assertTrue(mController.isIdle());
+        assertEquals(2500, mMetrics.activeMillis.get());
+        assertEquals(0, mMetrics.idleMillis.get());
+
+        mController.onIdleFrame(frame(100, 0, 0, WIDTH), WIDTH, WIDTH, HEIGHT, 3000);
+        mController.onIdleFrame(frame(100, 0, 0, WIDTH), WIDTH, WIDTH, HEIGHT, 4000);
+        assertEquals(1500, mMetrics.idleMillis.get());
+
+        // 唤醒前的一段时长计入空闲
+        assertTrue(mController.onIdleFrame(frame(0, 0, 0, WIDTH), WIDTH, WIDTH, HEIGHT, 4500));
+        assertEquals(2000, mMetrics.idleMillis.get());
+
+        mController.onDecodedFrame(true, 5000);
+        assertEquals(3000, mMetrics.activeMillis.get());
+        assertEquals(2000, mMetrics.idleMillis.get());
+    }
+
+    @Test
+    public void timeGoingBackwardsIsNotAccounted() {
+        mController.onDecodedFrame(false, 1000);
+        mController.onDecodedFrame(false, 900);
+
+        assertEquals(1000, mMetrics.activeMillis.get());
+    }
+
+    @Test
+    public void resetSkipsStoppedTimeAndRestartsTimeout() {
+        mController.onDecodedFrame(false, 1000);
+        // 1000到10000之间停止预览
+        mController.reset(10000);
+        mController.onDecodedFrame(false, 10500);
+
+        assertEquals(1500, mMetrics.activeMillis.get());
+        assertFalse(mController.isIdle());
+        mController.onDecodedFrame(false, 10000 + TIMEOUT_MS);
+        assertTrue(mController.isIdle());
+        // 非空闲状态下reset不切换帧率
+        assertEquals(Arrays.asList(true), mActuations);
+    }
+
+    @Test
+    public void resetWhileIdleWakes() {
+        enterIdle();
+        mController.reset(9000);
+
+        assertFalse(mController.isIdle());
+        assertEquals(Arrays.asList(true, false), mActuations);
+        assertEquals(1, mMetrics.idleExits.get());
+        assertEquals(0, mMetrics.idleMillis.get());
+    }
+
+    private void enterIdle() {
+        mController.onDecodedFrame(false, TIMEOUT_MS);
+        assertTrue(mController.isIdle());
+    }
+
+    /**
+     * 亮度为background的帧，按行优先顺序将前changedCells个格子设为foreground
+     */
+    private static ByteBuffer frame(int background, int foreground, int changedCells, int rowStride) {
+        byte[] y = new byte[rowStride * HEIGHT];
+        for (int row = 0; row < HEIGHT; row++) {
+            Arrays.fill(y, row * rowStride, row * rowStride + WIDTH, (byte) background);
+        }
+        for (int cell = 0; cell < changedCells; cell++) {
+            int left = (cell % IdleController.GRID_COLUMNS) * CELL_WIDTH;
+            int top = (cell / IdleController.GRID_COLUMNS) * CELL_HEIGHT;
+            for (int row = top; row < top + CELL_HEIGHT; row++) {
+                Arrays.fill(y, row * rowStride + left, row * rowStride + left + CELL_WIDTH, (byte) foreground);
+            }
+        }
+        return ByteBuffer.wrap(y);
+    }
+}
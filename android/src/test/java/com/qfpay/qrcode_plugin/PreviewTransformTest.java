@@ -0,0 +1,183 @@
+package com.qfpay.qrcode_plugin;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PreviewTransformTest {
+    private static final int BLACK = 0xFF000000;
+
+    @Test
+    public void downscalesLongSideAndKeepsAspectRatio() {
+        PreviewTransform transform = new PreviewTransform(1920, 1080, 0, false);
+
+        assertEquals(PreviewTransform.MAX_RENDER_SIDE, transform.getBitmapWidth());
+        assertEquals(405, transform.getBitmapHeight());
+        assertEquals(1920f / 1080f, (float) transform.getBitmapWidth() / transform.getBitmapHeight(), 0.01f);
+    }
+
+    @Test
+    public void smallPreviewIsNotUpscaled() {
+        PreviewTransform transform = new PreviewTransform(640, 480, 0, false);
+
+        assertEquals(640, transform.getBitmapWidth());
+        assertEquals(480, transform.getBitmapHeight());
+    }
+
+    @Test
+    public void bufferIsPortraitForSidewaysSensor() {
+        // 与camera.dart中的aspectRatio(previewHeight / previewWidth)一致
+        for (int orientation : new int[]{90, 270}) {
+            PreviewTransform transform = new PreviewTransform(1280, 720, orientation, false);
+            assertEquals(405, transform.getBufferWidth());
+            assertEquals(720, transform.getBufferHeight());
+        }
+        PreviewTransform upright = new PreviewTransform(1280, 720, 180, false);
+        assertEquals(720, upright.getBufferWidth());
+        assertEquals(405, upright.getBufferHeight());
+    }
+
+    @Test
+    public void normalizesOrientation() {
+        assertEquals(0, new PreviewTransform(4, 2, 360, false).getRotation());
+        assertEquals(270, new PreviewTransform(4, 2, -90, false).getRotation());
+        assertEquals(90, new PreviewTransform(4, 2, 80, false).getRotation());
+    }
+
+    @Test
+    public void matrixMapsBitmapOntoBuffer() {
+        for (int orientation : new int[]{0, 90, 180, 270}) {
+            for (boolean mirror : new boolean[]{false, true}) {
+                PreviewTransform transform = new PreviewTransform(4, 2, orientation, mirror);
+                float[] values = new float[9];
+                transform.getMatrixValues(values);
+                float[][] corners = {{0, 0}, {4, 0}, {0, 2}, {4, 2}};
+                for (float[] corner : corners) {
+                    float x = map(values, corner[0], corner[1], 0);
+                    float y = map(values, corner[0], corner[1], 1);
+                    String message = orientation + (mirror ? " mirror" : "");
+                    assertTrue(message, x == 0 || x == transform.getBufferWidth());
+                    assertTrue(message, y == 0 || y == transform.getBufferHeight());
+                }
+                assertArrayEquals(new float[]{0, 0, 1}, Arrays.copyOfRange(values, 6, 9), 0f);
+            }
+        }
+    }
+
+    @Test
+    public void backCameraOnPortraitDevice() {
+        // 常见后置摄像头：传感器方向90，帧的左上角在竖屏画面的右上角
+        int[] buffer = render(new PreviewTransform(8, 4, 90, false), 8, 4);
+
+        assertMarkerAt(buffer, 4, 2, 0);
+    }
+
+    @Test
+    public void frontCameraOnPortraitDevice() {
+        // 常见前置摄像头：传感器方向270，旋转后再镜像，帧的左上角在竖屏画面的右下角
+        int[] buffer = render(new PreviewTransform(8, 4, 270, true), 8, 4);
+
+        assertMarkerAt(buffer, 4, 2, 6);
+    }
+
+    @Test
+    public void upsideDownSensor() {
+        int[] buffer = render(new PreviewTransform(8, 4, 180, false), 8, 4);
+
+        assertMarkerAt(buffer, 8, 6, 2);
+    }
+
+    @Test
+    public void cropsWiderFrameToPreviewAspect() {
+        PreviewTransform transform = new PreviewTransform(640, 480, 0, false);
+        int[] crop = new int[4];
+        transform.computeCrop(1280, 720, crop);
+
+        assertArrayEquals(new int[]{160, 0, 960, 720}, crop);
+    }
+
+    @Test
+    public void cropsTallerFrameToPreviewAspect() {
+        PreviewTransform transform = new PreviewTransform(1280, 720, 90, false);
+        int[] crop = new int[4];
+        transform.computeCrop(640, 480, crop);
+
+        assertArrayEquals(new int[]{0, 60, 640, 360}, crop);
+    }
+
+    @Test
+    public void sameAspectIsNotCropped() {
+        PreviewTransform transform = new PreviewTransform(1280, 720, 90, false);
+        int[] crop = new int[4];
+        transform.computeCrop(1920, 1080, crop);
+
+        assertArrayEquals(new int[]{0, 0, 1920, 1080}, crop);
+    }
+
+    private static float map(float[] values, float x, float y, int axis) {
+        return axis == 0
+                ? values[0] * x + values[1] * y + values[2]
+                : values[3] * x + values[4] * y + values[5];
+    }
+
+    /**
+     * 按PreviewRenderer的流程绘制：左上角2x2为白色、其余为黑色的帧，裁剪转换后用矩阵绘制到缓冲区
+     */
+    private static int[] render(PreviewTransform transform, int frameWidth, int frameHeight) {
+        byte[] y = new byte[frameWidth * frameHeight];
+        Arrays.fill(y, (byte) 16);
+        for (int row = 0; row < 2; row++) {
+            for (int col = 0; col < 2; col++) {
+                y[row * frameWidth + col] = (byte) 235;
+            }
+        }
+        byte[] chroma = new byte[frameWidth * frameHeight / 4];
+        Arrays.fill(chroma, (byte) 128);
+        YuvFrame frame = new YuvFrame();
+        frame.fill(ByteBuffer.wrap(y), frameWidth, ByteBuffer.wrap(chroma), ByteBuffer.wrap(chroma.clone()),
+                frameWidth / 2, 1, frameWidth, frameHeight, 0L);
+
+        int width = transform.getBitmapWidth();
+        int height = transform.getBitmapHeight();
+        int[] crop = new int[4];
+        transform.computeCrop(frameWidth, frameHeight, crop);
+        int[] bitmap = new int[width * height];
+        YuvConverter.toArgb(frame, crop[0], crop[1], crop[2], crop[3], bitmap, width, height);
+
+        float[] values = new float[9];
+        transform.getMatrixValues(values);
+        int bufferWidth = transform.getBufferWidth();
+        int[] buffer = new int[bufferWidth * transform.getBufferHeight()];
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                // 按像素中心映射
+                int x = (int) Math.floor(map(values, col + 0.5f, row + 0.5f, 0));
+                int yy = (int) Math.floor(map(values, col + 0.5f, row + 0.5f, 1));
+                buffer[yy * bufferWidth + x] = bitmap[row * width + col];
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * 白色标记所在2x2区域的左上角应为(left, top)，其余均为黑色
+     */
+    private static void assertMarkerAt(int[] buffer, int bufferWidth, int left, int top) {
+        int white = 0;
+        for (int i = 0; i < buffer.length; i++) {
+            int x = i % bufferWidth;
+            int y = i / bufferWidth;
+            boolean inMarker = x >= left && x <= left + 1 && y >= top && y <= top + 1;
+            if (buffer[i] != BLACK) {
+                white++;
+                assertTrue("unexpected pixel at " + x + "," + y, inMarker);
+            }
+        }
+        assertEquals(4, white);
+    }
+}
@@ -0,0 +1,170 @@
+package com.qfpay.qrcode_plugin;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RefCountedLifecycleTest {
+    private static final int CYCLES = 1000;
+    private static final long IDLE_TIMEOUT_MS = 5000;
+
+    private final ManualScheduler mScheduler = new ManualScheduler();
+    private final PoolResource mResource = new PoolResource();
+    private final RefCountedLifecycle mLifecycle = new RefCountedLifecycle(mResource, mScheduler, IDLE_TIMEOUT_MS);
+
+    @Test
+    public void startsOnFirstAcquireAndStopsAfterIdleTimeout() {
+        mLifecycle.acquire();
+        mLifecycle.acquire();
+        assertEquals(1, mResource.starts);
+        assertEquals(2, mLifecycle.getRefCount());
+
+        mLifecycle.release();
+        assertNull(mScheduler.pending);
+        mLifecycle.release();
+        assertNotNull(mScheduler.pending);
+        assertEquals(IDLE_TIMEOUT_MS, mScheduler.delay);
+        assertTrue(mLifecycle.isStarted());
+
+        mScheduler.runPending();
+        assertFalse(mLifecycle.isStarted());
+        assertEquals(1, mResource.stops);
+    }
+
+    @Test
+    public void reacquireWithinIdleTimeoutReusesResource() {
+        mLifecycle.acquire();
+        DecodeWorkerPool pool = mResource.pool;
+        mLifecycle.release();
+
+        for (int i = 0; i < CYCLES; i++) {
+            mLifecycle.acquire();
+            // 延迟停止被取消，继续使用原来的资源
+            assertNull(mScheduler.pending);
+            assertSame(pool, mResource.pool);
+            mLifecycle.release();
+        }
+        assertEquals(1, mResource.starts);
+        assertEquals(0, mResource.stops);
+
+        mScheduler.runPending();
+        assertEquals(1, mResource.stops);
+    }
+
+    @Test
+    public void stopIsIgnoredWhileReferencesAreHeld() {
+        mLifecycle.acquire();
+        mLifecycle.acquire();
+        mLifecycle.release();
+        mLifecycle.stopIfUnused();
+        assertTrue(mLifecycle.isStarted());
+
+        mLifecycle.release();
+        mLifecycle.stopIfUnused();
+        assertFalse(mLifecycle.isStarted());
+        // 立即停止后取消延迟任务
+        assertNull(mScheduler.pending);
+        mLifecycle.stopIfUnused();
+        assertEquals(1, mResource.stops);
+    }
+
+    @Test
+    public void unbalancedReleaseIsIgnored() {
+        mLifecycle.release();
+        assertEquals(0, mLifecycle.getRefCount());
+        assertNull(mScheduler.pending);
+
+        mLifecycle.acquire();
+        mLifecycle.release();
+        mLifecycle.release();
+        assertEquals(0, mLifecycle.getRefCount());
+        assertEquals(1, mResource.starts);
+    }
+
+    @Test
+    public void acquireReleaseStopCyclesDoNotLeakThreads() throws InterruptedException {
+        int baseline = Thread.activeCount();
+
+        for (int i = 0; i < CYCLES; i++) {
+            mLifecycle.acquire();
+            mLifecycle.release();
+            mLifecycle.stopIfUnused();
+        }
+
+        assertEquals(CYCLES, mResource.starts);
+        assertEquals(CYCLES, mResource.stops);
+        for (Thread thread : mResource.threads) {
+            thread.join(5000);
+            assertFalse(thread.getName() + " is still alive", thread.isAlive());
+        }
+        assertTrue(Thread.activeCount() <= baseline);
+    }
+
+    /**
+     * 手动执行的延迟任务，代替主线程Handler
+     */
+    private static class ManualScheduler implements RefCountedLifecycle.Scheduler {
+        Runnable pending;
+        long delay;
+
+        @Override
+        public void postDelayed(Runnable task, long delayMillis) {
+            pending = task;
+            delay = delayMillis;
+        }
+
+        @Override
+        public void cancel(Runnable task) {
+            if (pending == task) {
+                pending = null;
+            }
+        }
+
+        void runPending() {
+            Runnable task = pending;
+            pending = null;
+            task.run();
+        }
+    }
+
+    /**
+     * 与CameraExecutors一样启动识别线程池
+     */
+    private static class PoolResource implements RefCountedLifecycle.Resource {
+        final List<Thread> threads = new ArrayList<>();
+        DecodeWorkerPool pool;
+        int starts;
+        int stops;
+
+        private final ThreadFactory mThreadFactory = new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "QrcodeDecodeTest-" + threads.size());
+                threads.add(thread);
+                return thread;
+            }
+        };
+
+        @Override
+        public void start() {
+            starts++;
+            pool = new DecodeWorkerPool(2, mThreadFactory);
+        }
+
+        @Override
+        public void stop() {
+            stops++;
+            pool.shutdown();
+            pool = null;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.qfpay.qrcode_plugin;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ScanAssistControllerTest {
+    private static final int BRIGHT = 150;
+    private static final int DARK = 20;
+    private static final float SMALL_CODE = 0.1f;
+
+    private final RecordingActuator actuator = new RecordingActuator();
+
+    @Test
+    public void turnsOnTorchAfterFailuresInDarkScene() {
+        ScanAssistController controller = new ScanAssistController(actuator, true, 4f);
+        fail(controller, ScanAssistController.FAILURE_THRESHOLD - 1, DARK, 0f);
+        assertTrue(actuator.actions.isEmpty());
+
+        fail(controller, 1, DARK, 0f);
+        assertTrue(controller.isTorchOn());
+        assertEquals("torch:true", actuator.actions.get(0));
+    }
+
+    @Test
+    public void keepsTorchOffWithoutFlashUnit() {
+        ScanAssistController controller = new ScanAssistController(actuator, false, 4f);
+        fail(controller, ScanAssistController.FAILURE_THRESHOLD * 3, DARK, 0f);
+
+        assertFalse(controller.isTorchOn());
+        assertTrue(actuator.actions.isEmpty());
+    }
+
+    @Test
+    public void zoomsInStepsUpToAssistLimit() {
+        ScanAssistController controller = new ScanAssistController(actuator, true, 10f);
+        fail(controller, ScanAssistController.FAILURE_THRESHOLD, BRIGHT, SMALL_CODE);
+        assertEquals(ScanAssistController.ZOOM_STEP, controller.getZoom(), 0.0001f);
+
+        fail(controller, ScanAssistController.FAILURE_THRESHOLD * 10, BRIGHT, SMALL_CODE);
+        // 最多放大到MAX_ASSIST_ZOOM，即使相机支持更大倍数
+        assertEquals(ScanAssistController.MAX_ASSIST_ZOOM, controller.getZoom(), 0.0001f);
+        assertFalse(controller.isTorchOn());
+        assertEquals(3, actuator.actions.size());
+        assertEquals("zoom:1.5", actuator.actions.get(0));
+        assertEquals("zoom:2.25", actuator.actions.get(1));
+        assertEquals("zoom:3.0", actuator.actions.get(2));
+    }
+
+    @Test
+    public void zoomIsLimitedByCameraMaxZoom() {
+        ScanAssistController controller = new ScanAssistController(actuator, true, 2f);
+        fail(controller, ScanAssistController.FAILURE_THRESHOLD * 5, BRIGHT, SMALL_CODE);
+
+        assertEquals(2f, controller.getZoom(), 0f);
+        assertEquals(2, actuator.actions.size());
+    }
+
+    @Test
+    public void doesNotZoomWithoutSmallCode() {
+        ScanAssistController controller = new ScanAssistController(actuator, true, 4f);
+        // 未检测到码或码已足够大
+        fail(controller, ScanAssistController.FAILURE_THRESHOLD * 2, BRIGHT, 0f);
+        fail(controller, ScanAssistController.FAILURE_THRESHOLD * 2, BRIGHT, 0.5f);
+
+        assertEquals(1f, controller.getZoom(), 0f);
+        assertTrue(actuator.actions.isEmpty());
+    }
+
+    @Test
+    public void torchTakesPriorityThenZoom() {
+        ScanAssistController controller = new ScanAssistController(actuator, true, 4f);
+        fail(controller, ScanAssistController.FAILURE_THRESHOLD, DARK, SMALL_CODE);
+        fail(controller, ScanAssistController.FAILURE_THRESHOLD, DARK, SMALL_CODE);
+
+        assertEquals("torch:true", actuator.actions.get(0));
+        assertEquals("zoom:1.5", actuator.actions.get(1));
+    }
+
+    @Test
+    public void brightnessIsSmoothed() {
+        ScanAssistController controller = new ScanAssistController(actuator, true, 4f);
+        fail(controller, ScanAssistController.FAILURE_THRESHOLD - 1, BRIGHT, 0f);
+        // 第FAILURE_THRESHOLD帧是暗画面，但单帧不足以把平滑后的亮度拉到阈值以下
+        controller.onFrame(0, false, 0f);
+        assertFalse(controller.isTorchOn());
+
+        // 持续暗画面时亮度逐渐下降，下一轮打开补光灯
+        fail(controller, ScanAssistController.FAILURE_THRESHOLD, 0, 0f);
+        assertTrue(controller.isTorchOn());
+    }
+
+    @Test
+    public void decodeResetsAdjustments() {
+        ScanAssistController controller = new ScanAssistController(actuator, true, 4f);
+        fail(controller, ScanAssistController.FAILURE_THRESHOLD, DARK, SMALL_CODE);
+        fail(controller, ScanAssistController.FAILURE_THRESHOLD, DARK, SMALL_CODE);
+        actuator.actions.clear();
+
+        controller.onFrame(DARK, true, 0.5f);
+        assertFalse(controller.isTorchOn());
+        assertEquals(1f, controller.getZoom(), 0f);
+        assertEquals(2, actuator.actions.size());
+        assertEquals("torch:false", actuator.actions.get(0));
+        assertEquals("zoom:1.0", actuator.actions.get(1));
+
+        // 成功后重新计数
+        fail(controller, ScanAssistController.FAILURE_THRESHOLD - 1, DARK, 0f);
+        assertEquals(2, actuator.actions.size());
+    }
+
+    @Test
+    public void resetWithoutAdjustmentsDoesNothing() {
+        ScanAssistController controller = new ScanAssistController(actuator, true, 4f);
+        controller.reset();
+
+        assertTrue(actuator.actions.isEmpty());
+    }
+
+    private static void fail(ScanAssistController controller, int frames, int brightness, float codeRatio) {
+        for (int i = 0; i < frames; i++) {
+            controller.onFrame(brightness, false, codeRatio);
+        }
+    }
+
+    private static class RecordingActuator implements ScanAssistController.Actuator {
+        final List<String> actions = new ArrayList<>();
+
+        @Override
+        public void setAssistTorch(boolean enable) {
+            actions.add("torch:" + enable);
+        }
+
+        @Override
+        public void setAssistZoom(float zoom) {
+            actions.add("zoom:" + zoom);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.qfpay.qrcode_plugin;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ScanTracerTest {
+
+    @Test
+    public void writesEmptyTraceBeforeFirstEnable() throws IOException {
+        ScanTracer tracer = new ScanTracer(4);
+        tracer.end(ScanTracer.SPAN_ACQUIRE, tracer.begin(), 1L, 2L);
+
+        StringWriter out = new StringWriter();
+        assertEquals(0, tracer.writeJson(out));
+        assertEquals("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n]}\n", out.toString());
+    }
+
+    @Test
+    public void keepsLatestRecordsWhenFull() throws IOException {
+        ScanTracer tracer = new ScanTracer(4);
+        tracer.setEnabled(true);
+        for (int i = 0; i < 6; i++) {
+            tracer.end(ScanTracer.SPAN_READER, tracer.begin(), 1L, i);
+        }
+
+        StringWriter out = new StringWriter();
+        assertEquals(4, tracer.writeJson(out));
+        String json = out.toString();
+        assertTrue(json.contains("\"frame\":2}"));
+        assertTrue(json.contains("\"frame\":5}"));
+        assertFalse(json.contains("\"frame\":1}"));
+    }
+
+    @Test
+    public void reEnablingClearsRecords() throws IOException {
+        ScanTracer tracer = new ScanTracer(4);
+        tracer.setEnabled(true);
+        tracer.end(ScanTracer.SPAN_PARSE, tracer.begin(), 1L, 1L);
+        tracer.setEnabled(false);
+        tracer.setEnabled(true);
+
+        assertEquals(0, tracer.writeJson(new StringWriter()));
+    }
+}
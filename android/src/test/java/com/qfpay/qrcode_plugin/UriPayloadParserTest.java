@@ -0,0 +1,82 @@
+package com.qfpay.qrcode_plugin;
+
+import com.google.zxing.BarcodeFormat;
+
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class UriPayloadParserTest {
+    private final UriPayloadParser parser = new UriPayloadParser();
+
+    @Test
+    public void parsesHierarchicalUriWithQueryAndFragment() {
+        Map<String, Object> payload = parser.parse("HTTPS://qr.alipay.com/pay/123?a=1&b=x%20y&flag&c=%E4%BD%A0#top",
+                BarcodeFormat.QR_CODE);
+
+        assertEquals("https", payload.get("scheme"));
+        assertEquals("qr.alipay.com", payload.get("host"));
+        assertEquals("/pay/123", payload.get("path"));
+        Map<String, Object> query = query(payload);
+        assertEquals("1", query.get("a"));
+        assertEquals("x y", query.get("b"));
+        assertEquals("", query.get("flag"));
+        assertEquals("你", query.get("c"));
+        assertEquals("top", payload.get("fragment"));
+    }
+
+    @Test
+    public void questionMarkInFragmentIsNotQuery() {
+        Map<String, Object> payload = parser.parse("wxp://f2f0abc#x?y=1", BarcodeFormat.QR_CODE);
+
+        assertEquals("f2f0abc", payload.get("host"));
+        assertEquals("", payload.get("path"));
+        assertEquals(0, query(payload).size());
+        assertEquals("x?y=1", payload.get("fragment"));
+    }
+
+    @Test
+    public void parsesKnownOpaqueScheme() {
+        Map<String, Object> payload = parser.parse("bitcoin:1BoatSLRHtKNngkdXEeobR76b53LETtpyT?amount=0.5",
+                BarcodeFormat.QR_CODE);
+
+        assertEquals("bitcoin", payload.get("scheme"));
+        assertFalse(payload.containsKey("host"));
+        assertEquals("1BoatSLRHtKNngkdXEeobR76b53LETtpyT", payload.get("path"));
+        assertEquals("0.5", query(payload).get("amount"));
+    }
+
+    @Test
+    public void ignoresNonUriText() {
+        assertNull(parser.parse("Note:abc", BarcodeFormat.QR_CODE));
+        assertNull(parser.parse("Order No: 42", BarcodeFormat.QR_CODE));
+        assertNull(parser.parse("https://example.com/a b", BarcodeFormat.QR_CODE));
+        assertNull(parser.parse("1:2", BarcodeFormat.QR_CODE));
+        assertNull(parser.parse("plain text", BarcodeFormat.QR_CODE));
+        assertNull(parser.parse("mailto:", BarcodeFormat.QR_CODE));
+    }
+
+    @Test
+    public void schemeMatchingIgnoresDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        // 土耳其语中大写I转小写为无点的ı
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            Map<String, Object> payload = parser.parse("MAILTO:pay@qfpay.com", BarcodeFormat.QR_CODE);
+            assertEquals("mailto", payload.get("scheme"));
+            assertEquals("https", parser.parse("HTTPS://qfpay.com/", BarcodeFormat.QR_CODE).get("scheme"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> query(Map<String, Object> payload) {
+        return (Map<String, Object>) payload.get("query");
+    }
+}
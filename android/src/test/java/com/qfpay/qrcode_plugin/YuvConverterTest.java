@@ -0,0 +1,81 @@
+package com.qfpay.qrcode_plugin;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+
+public class YuvConverterTest {
+    // 定点运算的截断误差
+    private static final int TOLERANCE = 2;
+
+    @Test
+    public void convertsLimitedRangeGrays() {
+        assertColor(0, 0, 0, convert(16, 128, 128));
+        assertColor(128, 128, 128, convert(126, 128, 128));
+        assertColor(255, 255, 255, convert(235, 128, 128));
+        // 超出有限范围时截断
+        assertColor(0, 0, 0, convert(0, 128, 128));
+        assertColor(255, 255, 255, convert(255, 128, 128));
+    }
+
+    @Test
+    public void convertsPrimaryColors() {
+        assertColor(255, 0, 0, convert(81, 90, 240));
+        assertColor(0, 255, 0, convert(145, 54, 34));
+        assertColor(0, 0, 255, convert(41, 240, 110));
+    }
+
+    @Test
+    public void scalesWithNearestNeighbour() {
+        // 4x2的帧，左半黑右半白，缩小到2x1
+        YuvFrame frame = frame(4, 2,
+                new byte[]{16, 16, (byte) 235, (byte) 235, 16, 16, (byte) 235, (byte) 235},
+                new byte[]{(byte) 128, (byte) 128}, new byte[]{(byte) 128, (byte) 128});
+        int[] out = new int[2];
+        YuvConverter.toArgb(frame, out, 2, 1);
+
+        assertColor(0, 0, 0, out[0]);
+        assertColor(255, 255, 255, out[1]);
+    }
+
+    @Test
+    public void convertsOnlyCropRegion() {
+        // 4x2的帧，只有中间两列是白色，裁剪中间两列后不应出现黑色
+        YuvFrame frame = frame(4, 2,
+                new byte[]{16, (byte) 235, (byte) 235, 16, 16, (byte) 235, (byte) 235, 16},
+                new byte[]{(byte) 128, (byte) 128}, new byte[]{(byte) 128, (byte) 128});
+        int[] out = new int[4];
+        YuvConverter.toArgb(frame, 1, 0, 2, 2, out, 2, 2);
+
+        for (int pixel : out) {
+            assertColor(255, 255, 255, pixel);
+        }
+    }
+
+    private static int convert(int y, int u, int v) {
+        YuvFrame frame = frame(2, 2,
+                new byte[]{(byte) y, (byte) y, (byte) y, (byte) y}, new byte[]{(byte) u}, new byte[]{(byte) v});
+        int[] out = new int[4];
+        YuvConverter.toArgb(frame, out, 2, 2);
+        for (int pixel : out) {
+            assertEquals(out[0], pixel);
+        }
+        return out[0];
+    }
+
+    private static YuvFrame frame(int width, int height, byte[] y, byte[] u, byte[] v) {
+        YuvFrame frame = new YuvFrame();
+        frame.fill(ByteBuffer.wrap(y), width, ByteBuffer.wrap(u), ByteBuffer.wrap(v), width / 2, 1,
+                width, height, 0L);
+        return frame;
+    }
+
+    private static void assertColor(int red, int green, int blue, int argb) {
+        assertEquals(0xFF, argb >>> 24);
+        assertEquals("red", red, (argb >> 16) & 0xFF, TOLERANCE);
+        assertEquals("green", green, (argb >> 8) & 0xFF, TOLERANCE);
+        assertEquals("blue", blue, argb & 0xFF, TOLERANCE);
+    }
+}
@@ -0,0 +1,91 @@
+package com.qfpay.qrcode_plugin;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class YuvFrameTest {
+    private static final byte PADDING = (byte) 0xEE;
+
+    @Test
+    public void dropsRowPaddingAndChromaPixelStride() {
+        int width = 4;
+        int height = 4;
+        int yRowStride = 6;
+        int uvRowStride = 8;
+        // 与Android一致，最后一行没有行填充
+        byte[] y = new byte[(height - 1) * yRowStride + width];
+        Arrays.fill(y, PADDING);
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                y[row * yRowStride + col] = (byte) (row * 10 + col);
+            }
+        }
+        // UV交错排列(pixelStride为2)，V平面从U平面的下一个字节开始
+        byte[] uv = new byte[uvRowStride + width];
+        Arrays.fill(uv, PADDING);
+        for (int row = 0; row < height / 2; row++) {
+            for (int col = 0; col < width / 2; col++) {
+                uv[row * uvRowStride + col * 2] = (byte) (100 + row * 10 + col);
+                uv[row * uvRowStride + col * 2 + 1] = (byte) (200 + row * 10 + col);
+            }
+        }
+        ByteBuffer uBuffer = ByteBuffer.wrap(uv, 0, uv.length - 1).slice();
+        ByteBuffer vBuffer = ByteBuffer.wrap(uv, 1, uv.length - 1).slice();
+
+        YuvFrame frame = new YuvFrame();
+        frame.fill(ByteBuffer.wrap(y), yRowStride, uBuffer, vBuffer, uvRowStride, 2, width, height, 42L);
+
+        assertEquals(width, frame.getWidth());
+        assertEquals(height, frame.getHeight());
+        assertEquals(42L, frame.getTimestamp());
+        assertArrayEquals(new byte[]{
+                0, 1, 2, 3,
+                10, 11, 12, 13,
+                20, 21, 22, 23,
+                30, 31, 32, 33}, frame.getY());
+        assertArrayEquals(new byte[]{100, 101, 110, 111}, frame.getU());
+        assertArrayEquals(new byte[]{(byte) 200, (byte) 201, (byte) 210, (byte) 211}, frame.getV());
+    }
+
+    @Test
+    public void copiesTightlyPackedPlanes() {
+        byte[] y = {1, 2, 3, 4, 5, 6, 7, 8};
+        YuvFrame frame = new YuvFrame();
+        frame.fill(ByteBuffer.wrap(y), 4, ByteBuffer.wrap(new byte[]{9, 10}), ByteBuffer.wrap(new byte[]{11, 12}),
+                2, 1, 4, 2, 1L);
+
+        assertArrayEquals(y, frame.getY());
+        assertArrayEquals(new byte[]{9, 10}, frame.getU());
+        assertArrayEquals(new byte[]{11, 12}, frame.getV());
+    }
+
+    @Test
+    public void reusesBuffersUntilSizeChanges() {
+        YuvFrame frame = new YuvFrame();
+        fillGray(frame, 4, 2);
+        byte[] y = frame.getY();
+        byte[] u = frame.getU();
+
+        fillGray(frame, 4, 2);
+        assertSame(y, frame.getY());
+        assertSame(u, frame.getU());
+
+        fillGray(frame, 8, 4);
+        assertNotSame(y, frame.getY());
+        assertEquals(32, frame.getY().length);
+        assertEquals(8, frame.getU().length);
+    }
+
+    private static void fillGray(YuvFrame frame, int width, int height) {
+        int chroma = (width / 2) * (height / 2);
+        frame.fill(ByteBuffer.allocate(width * height), width,
+                ByteBuffer.allocate(chroma), ByteBuffer.allocate(chroma), width / 2, 1, width, height, 0L);
+    }
+}
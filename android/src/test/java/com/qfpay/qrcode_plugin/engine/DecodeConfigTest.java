@@ -0,0 +1,81 @@
+package com.qfpay.qrcode_plugin.engine;
+
+import com.google.zxing.BarcodeFormat;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.EnumSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DecodeConfigTest {
+
+    @Test
+    public void defaultsToWholeFrameQrCode() {
+        DecodeConfig config = new DecodeConfig.Builder().build();
+
+        assertEquals(EnumSet.of(BarcodeFormat.QR_CODE), config.getFormats());
+        assertEquals(0f, config.getRegionLeft(), 0f);
+        assertEquals(0f, config.getRegionTop(), 0f);
+        assertEquals(1f, config.getRegionWidth(), 0f);
+        assertEquals(1f, config.getRegionHeight(), 0f);
+        assertEquals(DecodeConfig.Binarizer.HYBRID, config.getBinarizer());
+        assertFalse(config.isTryHarder());
+        assertFalse(config.isTryInverted());
+        assertFalse(config.isAssumeGs1());
+    }
+
+    @Test
+    public void acceptsRegionInsideFrame() {
+        DecodeConfig config = new DecodeConfig.Builder().setRegion(0.25f, 0.1f, 0.75f, 0.9f).build();
+
+        assertEquals(0.25f, config.getRegionLeft(), 0f);
+        assertEquals(0.1f, config.getRegionTop(), 0f);
+        assertEquals(0.75f, config.getRegionWidth(), 0f);
+        assertEquals(0.9f, config.getRegionHeight(), 0f);
+    }
+
+    @Test
+    public void rejectsRegionOutsideFrame() {
+        assertRegionRejected(-0.1f, 0f, 0.5f, 0.5f);
+        assertRegionRejected(0f, -0.1f, 0.5f, 0.5f);
+        assertRegionRejected(0f, 0f, 0f, 0.5f);
+        assertRegionRejected(0f, 0f, 0.5f, -0.5f);
+        assertRegionRejected(0.6f, 0f, 0.5f, 0.5f);
+        assertRegionRejected(0f, 0.6f, 0.5f, 0.5f);
+        assertRegionRejected(0f, 0f, 1.5f, 1f);
+    }
+
+    @Test
+    public void rejectsEmptyFormats() {
+        try {
+            new DecodeConfig.Builder().setFormats(Collections.<BarcodeFormat>emptySet());
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void formatsAreCopied() {
+        EnumSet<BarcodeFormat> formats = EnumSet.of(BarcodeFormat.QR_CODE, BarcodeFormat.CODE_128);
+        DecodeConfig config = new DecodeConfig.Builder().setFormats(formats).build();
+        formats.clear();
+
+        assertEquals(2, config.getFormats().size());
+        assertTrue(config.getFormats().contains(BarcodeFormat.CODE_128));
+    }
+
+    private static void assertRegionRejected(float left, float top, float width, float height) {
+        try {
+            new DecodeConfig.Builder().setRegion(left, top, width, height);
+            fail("Region accepted: " + left + ", " + top + ", " + width + ", " + height);
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+}
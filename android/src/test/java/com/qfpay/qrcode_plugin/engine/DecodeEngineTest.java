@@ -0,0 +1,200 @@
+package com.qfpay.qrcode_plugin.engine;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DecodeEngineTest {
+    private static final String TEXT = "https://qfpay.com/pay?order=20261018";
+    private static final int CODE_SIZE = 120;
+    private static final byte BLACK = 0;
+    private static final byte WHITE = (byte) 0xFF;
+
+    @Test
+    public void decodesGeneratedQrCode() throws WriterException {
+        DecodeEngine engine = new DecodeEngine(new DecodeConfig.Builder().build());
+        DecodeOutcome outcome = engine.decode(frame(200, 200, 200, 40, 40, false), 200, 200, 200);
+
+        assertTrue(outcome.isDecoded());
+        assertEquals(TEXT, outcome.getResult().getText());
+        assertEquals(BarcodeFormat.QR_CODE, outcome.getResult().getBarcodeFormat());
+        assertTrue(outcome.getCodeRatio() > 0f);
+        assertTrue(engine.getReaderBuildMicros() >= 0L);
+    }
+
+    @Test
+    public void reportsBrightnessWhenNothingIsFound() {
+        byte[] gray = new byte[64 * 64];
+        Arrays.fill(gray, (byte) 100);
+        DecodeOutcome outcome = new DecodeEngine(new DecodeConfig.Builder().build()).decode(gray, 64, 64, 64);
+
+        assertFalse(outcome.isDecoded());
+        assertNull(outcome.getResult());
+        assertEquals(100, outcome.getBrightness());
+        assertEquals(0f, outcome.getCodeRatio(), 0f);
+    }
+
+    @Test
+    public void brightnessIgnoresRowPaddingAndTail() {
+        // 64x64的灰色画面，行末填充和缓冲区末尾多余的字节都是白色
+        int rowStride = 96;
+        byte[] data = new byte[rowStride * 64 + 4096];
+        Arrays.fill(data, WHITE);
+        for (int row = 0; row < 64; row++) {
+            Arrays.fill(data, row * rowStride, row * rowStride + 64, (byte) 100);
+        }
+        DecodeOutcome outcome = new DecodeEngine(new DecodeConfig.Builder().build()).decode(data, rowStride, 64, 64);
+
+        assertEquals(100, outcome.getBrightness());
+    }
+
+    @Test
+    public void brightnessIsMeasuredInsideRegion() {
+        // 左半黑、右半亮度200，只识别右半部分
+        byte[] data = new byte[128 * 64];
+        for (int row = 0; row < 64; row++) {
+            Arrays.fill(data, row * 128 + 64, row * 128 + 128, (byte) 200);
+        }
+        DecodeConfig right = new DecodeConfig.Builder().setRegion(0.5f, 0f, 0.5f, 1f).build();
+
+        assertEquals(200, new DecodeEngine(right).decode(data, 128, 128, 64).getBrightness());
+        assertEquals(100, new DecodeEngine(new DecodeConfig.Builder().build()).decode(data, 128, 128, 64).getBrightness());
+    }
+
+    @Test
+    public void brightnessOfRegionSmallerThanSampleStep() {
+        byte[] data = new byte[4 * 4];
+        Arrays.fill(data, (byte) 50);
+
+        assertEquals(50, new DecodeEngine(new DecodeConfig.Builder().build()).decode(data, 4, 4, 4).getBrightness());
+    }
+
+    @Test
+    public void skipsRowPadding() throws WriterException {
+        // 行跨度大于宽度，填充字节为黑色，若未按行跨度读取会破坏码图
+        int rowStride = 232;
+        byte[] data = frame(200, 200, rowStride, 40, 40, false);
+        DecodeOutcome outcome = new DecodeEngine(new DecodeConfig.Builder().build()).decode(data, rowStride, 200, 200);
+
+        assertTrue(outcome.isDecoded());
+        assertEquals(TEXT, outcome.getResult().getText());
+    }
+
+    @Test
+    public void decodesOnlyInsideRegion() throws WriterException {
+        // 码位于画面右半部分
+        byte[] data = frame(400, 200, 400, 240, 40, false);
+
+        DecodeConfig left = new DecodeConfig.Builder().setRegion(0f, 0f, 0.5f, 1f).build();
+        assertFalse(new DecodeEngine(left).decode(data, 400, 400, 200).isDecoded());
+
+        DecodeConfig right = new DecodeConfig.Builder().setRegion(0.5f, 0f, 0.5f, 1f).build();
+        DecodeOutcome outcome = new DecodeEngine(right).decode(data, 400, 400, 200);
+        assertTrue(outcome.isDecoded());
+        assertEquals(TEXT, outcome.getResult().getText());
+    }
+
+    @Test
+    public void decodesWithGlobalHistogramBinarizer() throws WriterException {
+        DecodeConfig config = new DecodeConfig.Builder()
+                .setBinarizer(DecodeConfig.Binarizer.GLOBAL_HISTOGRAM)
+                .build();
+        DecodeOutcome outcome = new DecodeEngine(config).decode(frame(200, 200, 200, 40, 40, false), 200, 200, 200);
+
+        assertTrue(outcome.isDecoded());
+        assertEquals(TEXT, outcome.getResult().getText());
+    }
+
+    @Test
+    public void decodesInvertedCodeOnlyWhenEnabled() throws WriterException {
+        byte[] data = frame(200, 200, 200, 40, 40, true);
+
+        RecordingObserver plainObserver = new RecordingObserver(true);
+        DecodeEngine plain = new DecodeEngine(new DecodeConfig.Builder().build());
+        plain.setObserver(plainObserver);
+        assertFalse(plain.decode(data, 200, 200, 200).isDecoded());
+        assertEquals(Arrays.asList(DecodeObserver.STAGE_LUMINANCE, DecodeObserver.STAGE_BINARIZE,
+                DecodeObserver.STAGE_READER), plainObserver.stages);
+
+        RecordingObserver invertedObserver = new RecordingObserver(true);
+        DecodeEngine inverted = new DecodeEngine(new DecodeConfig.Builder().setTryInverted(true).build());
+        inverted.setObserver(invertedObserver);
+        DecodeOutcome outcome = inverted.decode(data, 200, 200, 200);
+        assertTrue(outcome.isDecoded());
+        assertEquals(TEXT, outcome.getResult().getText());
+        // 正常识别失败后按反色再识别一次
+        assertEquals(Arrays.asList(DecodeObserver.STAGE_LUMINANCE,
+                DecodeObserver.STAGE_BINARIZE, DecodeObserver.STAGE_READER,
+                DecodeObserver.STAGE_BINARIZE, DecodeObserver.STAGE_READER), invertedObserver.stages);
+    }
+
+    @Test
+    public void disabledObserverIsNotCalled() throws WriterException {
+        RecordingObserver observer = new RecordingObserver(false);
+        DecodeEngine engine = new DecodeEngine(new DecodeConfig.Builder().build());
+        engine.setObserver(observer);
+
+        assertTrue(engine.decode(frame(200, 200, 200, 40, 40, false), 200, 200, 200).isDecoded());
+        assertTrue(observer.stages.isEmpty());
+    }
+
+    /**
+     * 生成一帧亮度数据，码图左上角位于(left, top)，inverted为true时深色背景浅色码
+     */
+    private static byte[] frame(int width, int height, int rowStride, int left, int top, boolean inverted)
+            throws WriterException {
+        Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
+        hints.put(EncodeHintType.MARGIN, 0);
+        BitMatrix matrix = new QRCodeWriter().encode(TEXT, BarcodeFormat.QR_CODE, CODE_SIZE, CODE_SIZE, hints);
+        byte background = inverted ? BLACK : WHITE;
+        byte module = inverted ? WHITE : BLACK;
+
+        byte[] data = new byte[rowStride * height];
+        Arrays.fill(data, BLACK);
+        for (int y = 0; y < height; y++) {
+            Arrays.fill(data, y * rowStride, y * rowStride + width, background);
+        }
+        for (int y = 0; y < matrix.getHeight(); y++) {
+            for (int x = 0; x < matrix.getWidth(); x++) {
+                if (matrix.get(x, y)) {
+                    data[(top + y) * rowStride + left + x] = module;
+                }
+            }
+        }
+        return data;
+    }
+
+    private static class RecordingObserver implements DecodeObserver {
+        private final boolean enabled;
+        final List<Integer> stages = new ArrayList<>();
+
+        RecordingObserver(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        @Override
+        public void onStage(int stage, long startNanos) {
+            stages.add(stage);
+        }
+    }
+}
@@ -285,7 +285,14 @@ FourCharCode const videoFormat = kCVPixelFormatType_32BGRA;
 
 - (void)stopPreviewingWithResult:(NSString*)result {
     if (![result  isEqual: @""] && _isPreviewing) {
-        [_channel invokeMethod:@"scanSuccess" arguments:result];
+        // 与Android一致，通过相机事件通道发送识别结果
+        if (_eventSink) {
+            _eventSink(@{
+                         @"eventType":@"scanResult",
+                         @"content":result,
+                         @"cameraName":_captureDevice.uniqueID,
+                         });
+        }
         [self stop];
     }
 }
@@ -24,8 +24,26 @@ class QrcodePlugin {
   /// 释放相机
   static const String METHOD_DISPOSE = "dispose";
 
-  /// 扫码成功
-  static const String METHOD_SCAN_SUCCESS = "scanSuccess";
+  /// 获取扫码统计指标
+  static const String METHOD_METRICS = "metrics";
+
+  /// 补光灯开关
+  static const String METHOD_SET_TORCH = "setTorch";
+
+  /// 设置数码变焦
+  static const String METHOD_SET_ZOOM = "setZoom";
+
+  /// 设置曝光补偿
+  static const String METHOD_SET_EXPOSURE = "setExposure";
+
+  /// 扫码辅助(自动补光、放大)开关
+  static const String METHOD_SET_SCAN_ASSIST = "setScanAssist";
+
+  /// 耗时追踪开关
+  static const String METHOD_SET_TRACING = "setTracing";
+
+  /// 导出耗时追踪记录
+  static const String METHOD_DUMP_TRACE = "dumpTrace";
 
   /// 相机操作方法调用通道
   static const MethodChannel _channel =
@@ -54,31 +72,88 @@ class QrcodePlugin {
       String cameraName,
       String resolutionPreset,
       bool enableAudio,
-      List<String> codeFormats) async {
+      List<String> codeFormats,
+      [List<String> payloadTypes,
+      int cameraThreadPriority,
+      int decodeThreadPriority,
+      String streamMode,
+      double idleTimeout,
+      List<double> scanRegion]) async {
     return await _channel
         .invokeMapMethod<String, dynamic>(METHOD_INITIALIZE, <String, dynamic>{
       'cameraName': cameraName,
       'resolutionPreset': resolutionPreset,
       'enableAudio': enableAudio,
       'codeFormats': codeFormats,
+      'payloadTypes': payloadTypes,
+      'cameraThreadPriority': cameraThreadPriority,
+      'decodeThreadPriority': decodeThreadPriority,
+      'streamMode': streamMode,
+      'idleTimeout': idleTimeout,
+      'scanRegion': scanRegion,
     });
   }
 
-  /// 开始预览
-  static Future<void> startPreview() async {
+  /// 开始预览，多个相机时通过[textureId]指定相机，不传时为最后初始化的相机
+  static Future<void> startPreview({int textureId}) async {
     print("start preview");
-    return await _channel.invokeMethod(METHOD_START_PREVIEW);
+    return await _channel.invokeMethod(
+        METHOD_START_PREVIEW, <String, dynamic>{'textureId': textureId});
   }
 
   /// 停止预览
-  static Future<void> stopPreview() async {
+  static Future<void> stopPreview({int textureId}) async {
     print("stop preview");
-    return await _channel.invokeMethod(METHOD_STOP_PREVIEW);
+    return await _channel.invokeMethod(
+        METHOD_STOP_PREVIEW, <String, dynamic>{'textureId': textureId});
   }
 
-  /// 释放相机
+  /// 释放相机，[textureId]为null时释放全部相机
   static Future<void> dispose(int textureId) async {
     return await _channel.invokeMethod<void>(
         METHOD_DISPOSE, <String, dynamic>{'textureId': textureId});
   }
+
+  /// 获取扫码统计指标，[reset]为true时读取后清零
+  static Future<Map<String, dynamic>> metrics({bool reset = false}) async {
+    return await _channel.invokeMapMethod<String, dynamic>(
+        METHOD_METRICS, <String, dynamic>{'reset': reset});
+  }
+
+  /// 打开或关闭补光灯
+  static Future<void> setTorch(bool enable, {int textureId}) async {
+    return await _channel.invokeMethod<void>(METHOD_SET_TORCH,
+        <String, dynamic>{'enable': enable, 'textureId': textureId});
+  }
+
+  /// 设置数码变焦倍数
+  static Future<void> setZoom(double zoom, {int textureId}) async {
+    return await _channel.invokeMethod<void>(METHOD_SET_ZOOM,
+        <String, dynamic>{'zoom': zoom, 'textureId': textureId});
+  }
+
+  /// 设置曝光补偿
+  static Future<void> setExposure(int compensation, {int textureId}) async {
+    return await _channel.invokeMethod<void>(METHOD_SET_EXPOSURE,
+        <String, dynamic>{'compensation': compensation, 'textureId': textureId});
+  }
+
+  /// 开启或关闭扫码辅助
+  static Future<void> setScanAssist(bool enable, {int textureId}) async {
+    return await _channel.invokeMethod<void>(METHOD_SET_SCAN_ASSIST,
+        <String, dynamic>{'enable': enable, 'textureId': textureId});
+  }
+
+  /// 开启或关闭耗时追踪，开启时清空之前的记录
+  static Future<void> setTracing(bool enable) async {
+    return await _channel.invokeMethod<void>(
+        METHOD_SET_TRACING, <String, dynamic>{'enable': enable});
+  }
+
+  /// 将耗时追踪记录导出为Chrome trace-event格式的JSON文件，可在Perfetto中打开。
+  /// 未指定[path]时写入应用缓存目录，返回文件路径
+  static Future<String> dumpTrace({String path}) async {
+    return await _channel.invokeMethod<String>(
+        METHOD_DUMP_TRACE, <String, dynamic>{'path': path});
+  }
 }
@@ -24,6 +24,30 @@ enum CodeFormat {
   qr
 }
 
+/// 原生层支持的识别内容解析类型，解析结果通过[CameraController.onScanResult]返回
+enum PayloadType {
+  /// GS1应用标识符，例如GS1-128、GS1 DataMatrix
+  gs1,
+
+  /// EMVCo商户主扫支付码
+  emvco,
+
+  /// URI，例如支付链接
+  uri
+}
+
+/// Android相机输出模式
+enum PreviewStreamMode {
+  /// 同时输出到预览纹理和识别用的ImageReader(默认)
+  dual,
+
+  /// 只输出到ImageReader，预览由同一帧在CPU上绘制，相机只需配置一路输出
+  single,
+
+  /// LEGACY和LIMITED级别的设备使用[single]，其他设备使用[dual]
+  auto
+}
+
 /// 相机描述类
 class CameraDescription {
   /// 相机名称
@@ -234,3 +258,38 @@ List<String> serializeCodeFormatsList(List<CodeFormat> formats) {
 
   return list;
 }
+
+/// 解析类型与字符描述对应
+var _availablePayloadTypes = {
+  PayloadType.gs1: 'gs1',
+  PayloadType.emvco: 'emvco',
+  PayloadType.uri: 'uri',
+};
+
+List<String> serializePayloadTypesList(List<PayloadType> types) {
+  List<String> list = [];
+  if (types == null) {
+    return list;
+  }
+
+  for (var i = 0; i < types.length; i++) {
+    if (_availablePayloadTypes[types[i]] != null) {
+      list.add(_availablePayloadTypes[types[i]]);
+    }
+  }
+
+  return list;
+}
+
+/// 将[PreviewStreamMode]转换成字符串方式表示
+String serializePreviewStreamMode(PreviewStreamMode mode) {
+  switch (mode) {
+    case PreviewStreamMode.single:
+      return 'single';
+    case PreviewStreamMode.auto:
+      return 'auto';
+    case PreviewStreamMode.dual:
+    default:
+      return 'dual';
+  }
+}
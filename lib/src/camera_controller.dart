@@ -15,23 +15,71 @@ class CameraController extends ValueNotifier<CameraValue> {
   final CameraDescription description;
   final ResolutionPreset resolutionPreset;
   final Function onScanSuccess;
+
+  /// 扫码成功后返回结构化的识别结果，包含content、format、type和fields
+  final Function onScanResult;
   List<CodeFormat> codeFormats; //设置扫码识别格式
 
+  /// 在原生层启用的识别内容解析类型，按顺序尝试，结果在[onScanResult]的payload中返回
+  final List<PayloadType> payloadTypes;
+
+  /// Android相机控制线程和识别线程的优先级，取值同Process.THREAD_PRIORITY_*(-20~19，越小越优先)
+  /// 线程在所有相机间共享，设置后对之后的所有相机生效
+  final int cameraThreadPriority;
+  final int decodeThreadPriority;
+
+  /// Android相机输出模式，默认[PreviewStreamMode.dual]
+  final PreviewStreamMode streamMode;
+
+  /// 超过该时长没有识别出码时进入空闲状态：相机降低帧率，只检测画面变化，
+  /// 画面变化后恢复全速识别。为null时不启用，精度为毫秒
+  final Duration idleTimeout;
+
+  /// 识别区域，left、top、width、height为占画面宽高的比例(0~1)，为null时识别整个画面
+  final Rect scanRegion;
+
   /// 设置在录像时是否允许录音
   final bool enableAudio;
 
   bool _isDisposed = false; //页面是否被销毁
   Completer<void> _initializedCompleter; //相机初始化异步任务
   int _textureId; //相机图像纹理绘制标识，通过[Texture]类来实现
+  bool _torchAvailable = false; //是否有补光灯
+  double _maxZoom = 1.0; //最大数码变焦倍数
+  int _minExposure = 0; //曝光补偿范围
+  int _maxExposure = 0;
+  double _exposureStep = 0.0; //曝光补偿步长(EV)
+  bool _singleStream = false; //是否实际使用了单路输出
 
   StreamSubscription<dynamic> _eventSubscription;
 
   CameraController(this.description, this.resolutionPreset,
-      {this.enableAudio = true, this.onScanSuccess, this.codeFormats})
+      {this.enableAudio = true,
+      this.onScanSuccess,
+      this.onScanResult,
+      this.codeFormats,
+      this.payloadTypes,
+      this.cameraThreadPriority,
+      this.decodeThreadPriority,
+      this.streamMode = PreviewStreamMode.dual,
+      this.idleTimeout,
+      this.scanRegion})
       : super(const CameraValue.uninitialized());
 
   int get textureId => _textureId;
 
+  bool get torchAvailable => _torchAvailable;
+
+  double get maxZoom => _maxZoom;
+
+  int get minExposure => _minExposure;
+
+  int get maxExposure => _maxExposure;
+
+  double get exposureStep => _exposureStep;
+
+  bool get singleStream => _singleStream;
+
   /// 初始化构造函数中传入一个设备相机[description]
   /// 如果初始化失败，会抛出一个[CameraException]
   Future<void> initialize() async {
@@ -49,8 +97,27 @@ class CameraController extends ValueNotifier<CameraValue> {
           description.name,
           serializeResolutionPreset(resolutionPreset),
           enableAudio,
-          serializeCodeFormatsList(codeFormats));
+          serializeCodeFormatsList(codeFormats),
+          serializePayloadTypesList(payloadTypes),
+          cameraThreadPriority,
+          decodeThreadPriority,
+          serializePreviewStreamMode(streamMode),
+          idleTimeout == null ? null : idleTimeout.inMilliseconds / 1000.0,
+          scanRegion == null
+              ? null
+              : <double>[
+                  scanRegion.left,
+                  scanRegion.top,
+                  scanRegion.width,
+                  scanRegion.height
+                ]);
       _textureId = reply['textureId'];
+      _torchAvailable = reply['torchAvailable'] ?? false;
+      _maxZoom = reply['maxZoom']?.toDouble() ?? 1.0;
+      _minExposure = reply['minExposure'] ?? 0;
+      _maxExposure = reply['maxExposure'] ?? 0;
+      _exposureStep = reply['exposureStep']?.toDouble() ?? 0.0;
+      _singleStream = reply['singleStream'] ?? false;
       value = value.copyWith(
         isInitialized: true,
         previewSize: Size(reply['previewWidth'].toDouble(),
@@ -60,10 +127,7 @@ class CameraController extends ValueNotifier<CameraValue> {
       throw CameraException(e.code, e.message);
     }
 
-    // 注册扫码结果回调
-    QrcodePlugin.channel.setMethodCallHandler(_handleMethodCall);
-
-    // 注册相机状态变更事件通道
+    // 注册相机状态变更事件通道，扫码结果也通过该通道按相机分发
     _eventSubscription = QrcodePlugin.createCameraEventChannel(_textureId)
         .receiveBroadcastStream()
         .listen(_listener);
@@ -80,7 +144,7 @@ class CameraController extends ValueNotifier<CameraValue> {
     }
 
     try {
-      await QrcodePlugin.startPreview();
+      await QrcodePlugin.startPreview(textureId: _textureId);
     } on PlatformException catch (e) {
       throw CameraException(e.code, e.message);
     }
@@ -93,7 +157,38 @@ class CameraController extends ValueNotifier<CameraValue> {
     }
 
     try {
-      await QrcodePlugin.stopPreview();
+      await QrcodePlugin.stopPreview(textureId: _textureId);
+    } on PlatformException catch (e) {
+      throw CameraException(e.code, e.message);
+    }
+  }
+
+  /// 打开或关闭补光灯，[torchAvailable]为false时抛出[CameraException]
+  Future<void> setTorch(bool enable) async {
+    await _invokeControl(() => QrcodePlugin.setTorch(enable, textureId: _textureId));
+  }
+
+  /// 设置数码变焦倍数，范围为1到[maxZoom]
+  Future<void> setZoom(double zoom) async {
+    await _invokeControl(() => QrcodePlugin.setZoom(zoom, textureId: _textureId));
+  }
+
+  /// 设置曝光补偿，范围为[minExposure]到[maxExposure]，单位为[exposureStep]
+  Future<void> setExposure(int compensation) async {
+    await _invokeControl(() => QrcodePlugin.setExposure(compensation, textureId: _textureId));
+  }
+
+  /// 开启扫码辅助后，连续识别失败时自动打开补光灯或放大画面，识别成功后恢复
+  Future<void> setScanAssist(bool enable) async {
+    await _invokeControl(() => QrcodePlugin.setScanAssist(enable, textureId: _textureId));
+  }
+
+  Future<void> _invokeControl(Future<void> Function() control) async {
+    if (_isDisposed) {
+      return;
+    }
+    try {
+      await control();
     } on PlatformException catch (e) {
       throw CameraException(e.code, e.message);
     }
@@ -130,14 +225,13 @@ class CameraController extends ValueNotifier<CameraValue> {
       case 'cameraClosing':
         value = value.copyWith(isRecordingVideo: false);
         break;
-    }
-  }
-
-  Future<dynamic> _handleMethodCall(MethodCall call) async {
-    switch (call.method) {
-      case QrcodePlugin.METHOD_SCAN_SUCCESS:
+      case 'scanResult':
+        // 结果中带有textureId和cameraName，标识识别出结果的相机
         if (onScanSuccess != null) {
-          onScanSuccess(call.arguments);
+          onScanSuccess(map['content']);
+        }
+        if (onScanResult != null) {
+          onScanResult(map);
         }
         break;
     }